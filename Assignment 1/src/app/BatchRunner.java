@@ -0,0 +1,306 @@
+package app;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.TimeRange;
+import service.CalendarPrinter;
+import service.EventParser;
+import service.EventStore;
+import service.IcsFormat;
+import service.InputValidators;
+import service.LoadResult;
+import service.ParseError;
+import service.Rejection;
+
+/**
+ * Runs a file of calendar commands without the menu (MyCalendarTester --batch).
+ *
+ * One command per line; blank lines and lines starting with # are skipped.
+ * Dates are M/d/uuuu and times H:mm, as in the events file; a name is the
+ * rest of the line.
+ *   create <date> <start> <end> <name>
+ *   delete <date> <name>            one-time event, as [D]elete [S]elected
+ *   delete-all <date>
+ *   delete-recurring <name>
+ *   goto <date>                     day view
+ *   list                            event list
+ *   export <file>                   save in the events file format (iCalendar for .ics)
+ *
+ * - A run of consecutive creates is validated as one group and committed
+ *   with one EventStore.importAll (one sorted merge per day instead of an
+ *   insert per create) before the next other command, so every command
+ *   still sees the ones before it. Creates are settled in file order, as
+ *   the menu's [C]reate would settle them one by one: a create that
+ *   overlaps the store or an earlier accepted create of its group loses.
+ * - View output is built in a StringBuilder and written through one
+ *   buffered writer, not printed line by line.
+ * - Every command adds one JSON line to the result log, in file order:
+ *   {"line":3,"command":"create","status":"ok"}. Status is ok, conflict
+ *   (with "with": the event it overlaps), not_found or error (with
+ *   "message"); deletes also report "deleted".
+ */
+public final class BatchRunner {
+    private static final String USAGE = "Usage: --batch <commands> [events file] [result log]";
+
+    // A create waiting for its group to be validated; error is set if it did not parse
+    private record Create(int line, OneTimeEvent event, String error) { }
+
+    private final EventStore store;
+    private final Writer out;
+    private final Writer log;
+    private final List<Create> pending = new ArrayList<>();
+    private final StringBuilder view = new StringBuilder(4096);
+    private final StringBuilder entry = new StringBuilder(128);
+    private int commands, failed;
+
+    public BatchRunner(EventStore store, Writer out, Writer log) {
+        this.store = store;
+        this.out = out;
+        this.log = log;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println(USAGE);
+            return;
+        }
+        Path commands = Path.of(args[0]);
+        Path results = Path.of(args.length > 2 ? args[2] : "batch-results.jsonl");
+        EventStore store = new EventStore();
+        if (args.length > 1) {
+            LoadResult loaded = MyCalendarTester.load(Path.of(args[1]));
+            for (ParseError err : loaded.errors()) System.err.println("Skipped " + err);
+            store.addAll(loaded.events());
+        }
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16);
+        try (BufferedReader in = Files.newBufferedReader(commands);
+             Writer log = Files.newBufferedWriter(results)) {
+            BatchRunner runner = new BatchRunner(store, out, log);
+            long t0 = System.nanoTime();
+            runner.run(in);
+            double ms = (System.nanoTime() - t0) / 1e6;
+            System.err.printf("%d commands (%d failed) in %.0f ms, results in %s%n",
+                    runner.commands(), runner.failed(), ms, results);
+        } finally {
+            out.flush();
+        }
+    }
+
+    public int commands() { return commands; }
+    public int failed() { return failed; }
+
+    // Runs every command from in, then flushes the output and the log
+    public void run(BufferedReader in) throws IOException {
+        int number = 0;
+        for (String line; (line = in.readLine()) != null; ) {
+            number++;
+            String cmd = line.strip();
+            if (cmd.isEmpty() || cmd.startsWith("#")) continue;
+            execute(number, cmd);
+        }
+        flushCreates();
+        out.flush();
+        log.flush();
+    }
+
+    private void execute(int line, String cmd) throws IOException {
+        commands++;
+        int sp = cmd.indexOf(' ');
+        String verb = (sp < 0 ? cmd : cmd.substring(0, sp)).toLowerCase(Locale.ROOT);
+        String rest = sp < 0 ? "" : cmd.substring(sp + 1).strip();
+        if (verb.equals("create")) {
+            pending.add(parseCreate(line, rest));
+            return;
+        }
+        flushCreates();
+        try {
+            switch (verb) {
+                case "delete" -> {
+                    String[] a = args(rest, 2, "delete <date> <name>");
+                    boolean removed = store.deleteSelected(InputValidators.parseDateStrict(a[0]), a[1]);
+                    deleted(line, verb, removed ? 1 : 0);
+                }
+                case "delete-all" -> {
+                    String[] a = args(rest, 1, "delete-all <date>");
+                    deleted(line, verb, store.deleteAllOn(InputValidators.parseDateStrict(a[0])));
+                }
+                case "delete-recurring" -> {
+                    String[] a = args(rest, 1, "delete-recurring <name>");
+                    deleted(line, verb, store.deleteRecurringByName(a[0]));
+                }
+                case "goto" -> {
+                    LocalDate d = InputValidators.parseDateStrict(args(rest, 1, "goto <date>")[0]);
+                    view.setLength(0);
+                    out.append(CalendarPrinter.appendDay(view, d, store.formattedOccurrencesOn(d)));
+                    ok(line, verb);
+                }
+                case "list" -> {
+                    view.setLength(0);
+                    out.append(CalendarPrinter.appendEventList(view,
+                            store.oneTimeEventsSorted(), store.recurringEventsSorted()));
+                    ok(line, verb);
+                }
+                case "export" -> {
+                    String[] a = args(rest, 1, "export <file>");
+                    try {
+                        Path target = Path.of(a[0]);
+                        if (IcsFormat.isIcs(target)) IcsFormat.write(target, store.all());
+                        else EventParser.write(target, store.all());
+                        ok(line, verb);
+                    } catch (IOException ex) {
+                        error(line, verb, "Error writing file: " + ex.getMessage());
+                    }
+                }
+                default -> error(line, verb, "Unknown command.");
+            }
+        } catch (IllegalArgumentException ex) {
+            error(line, verb, ex.getMessage());
+        }
+    }
+
+    // Same checks as the menu's [C]reate
+    private static Create parseCreate(int line, String rest) {
+        try {
+            String[] a = args(rest, 4, "create <date> <start> <end> <name>");
+            LocalDate date = InputValidators.parseDateStrict(a[0]);
+            LocalTime start = InputValidators.parseTimeStrict(a[1]);
+            LocalTime end = InputValidators.parseTimeStrict(a[2]);
+            if (!end.isAfter(start))
+                throw new IllegalArgumentException("End time must be after start time.");
+            return new Create(line, new OneTimeEvent(a[3], date, new TimeRange(start, end)), null);
+        } catch (IllegalArgumentException ex) {
+            return new Create(line, null, ex.getMessage());
+        }
+    }
+
+    // Validate the pending creates in file order, commit the accepted ones as one
+    // importAll, then log them all in file order
+    private void flushCreates() throws IOException {
+        if (pending.isEmpty()) return;
+        // accepted creates of this group by day and start; they never overlap each other,
+        // so the neighbours on either side of a start are the only ones it can hit
+        Map<LocalDate, TreeMap<Integer, OneTimeEvent>> taken = new HashMap<>();
+        Event[] conflicts = new Event[pending.size()];
+        List<OneTimeEvent> batch = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            OneTimeEvent o = pending.get(i).event();
+            if (o == null) continue;
+            int s = o.time().startMinute(), e = o.time().endMinute();
+            TreeMap<Integer, OneTimeEvent> day = taken.computeIfAbsent(o.date(), k -> new TreeMap<>());
+            Map.Entry<Integer, OneTimeEvent> before = day.floorEntry(s), after = day.ceilingEntry(s);
+            Event hit = before != null && before.getValue().time().endMinute() > s ? before.getValue()
+                      : after != null && after.getKey() < e ? after.getValue() : null;
+            if (hit == null) {
+                List<Event> stored = store.conflictsWith(o.date(), o.time());
+                if (!stored.isEmpty()) hit = stored.get(0);
+            }
+            if (hit != null) {
+                conflicts[i] = hit;
+            } else {
+                day.put(s, o);
+                batch.add(o);
+            }
+        }
+        // nothing left for importAll to reject; map anything it does by identity all the same
+        Map<OneTimeEvent, Event> rejected = new IdentityHashMap<>();
+        for (Rejection r : store.importAll(batch).rejected()) rejected.put(r.event(), r.conflictsWith());
+        for (int i = 0; i < pending.size(); i++) {
+            Create c = pending.get(i);
+            if (c.error() != null) {
+                error(c.line(), "create", c.error());
+                continue;
+            }
+            Event other = conflicts[i] != null ? conflicts[i] : rejected.get(c.event());
+            if (other == null) {
+                ok(c.line(), "create");
+            } else {
+                failed++;
+                begin(c.line(), "create", "conflict").append(",\"with\":");
+                quote(entry, other.name());
+                end();
+            }
+        }
+        pending.clear();
+    }
+
+    // The first n-1 space-separated arguments, then the rest of the line as the last one
+    private static String[] args(String rest, int n, String usage) {
+        String[] a = new String[n];
+        int pos = 0;
+        for (int i = 0; i < n; i++) {
+            while (pos < rest.length() && rest.charAt(pos) == ' ') pos++;
+            int stop = i == n - 1 ? rest.length() : rest.indexOf(' ', pos);
+            if (pos >= rest.length() || stop < 0) throw new IllegalArgumentException("Expected: " + usage);
+            a[i] = rest.substring(pos, stop);
+            pos = stop;
+        }
+        return a;
+    }
+
+    private void ok(int line, String verb) throws IOException {
+        begin(line, verb, "ok");
+        end();
+    }
+
+    private void deleted(int line, String verb, int count) throws IOException {
+        if (count == 0) failed++;
+        begin(line, verb, count == 0 ? "not_found" : "ok").append(",\"deleted\":").append(count);
+        end();
+    }
+
+    private void error(int line, String verb, String message) throws IOException {
+        failed++;
+        begin(line, verb, "error").append(",\"message\":");
+        quote(entry, message);
+        end();
+    }
+
+    private StringBuilder begin(int line, String verb, String status) {
+        entry.setLength(0);
+        entry.append("{\"line\":").append(line).append(",\"command\":");
+        quote(entry, verb);
+        return entry.append(",\"status\":\"").append(status).append('"');
+    }
+
+    private void end() throws IOException {
+        log.append(entry.append('}').append('\n'));
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,227 @@
+package app;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+import service.CalendarStore;
+import service.ConcurrentEventStore;
+import service.EventStore;
+import service.InputValidators;
+import service.LoadResult;
+import service.PackedEventStore;
+import service.ParseError;
+
+// Headless mode: serves one shared calendar over HTTP instead of the Scanner menu.
+/**
+ * Endpoints (dates M/d/uuuu, times H:mm, plain-text responses):
+ * - GET    /day?date=                 day view, one "name : start - end" per line
+ * - GET    /month?month=uuuu-MM       days of the month that have events, comma separated
+ * - GET    /events                    event list (one-time, then recurring)
+ * - POST   /events?name=&date=&start=&end=   create a one-time event (409 on conflict)
+ * - DELETE /events?date=&name=        delete selected; without name, delete all on date
+ * - DELETE /events?recurring=         delete recurring events by name
+ *
+ * Requests run one per virtual thread when the JDK has them (21+), otherwise on
+ * a cached thread pool. Handlers need no locking of their own: the store is
+ * a ConcurrentEventStore by default, and the single-threaded backends
+ * (packed, objects) are wrapped in CalendarStore.synchronizedStore.
+ *
+ * Launch with -Dsun.net.httpserver.nodelay=true: the JDK server writes
+ * headers and body separately, and without TCP_NODELAY each response waits
+ * ~40 ms on the client's delayed ACK. It is a JVM-wide setting, so the
+ * server leaves it to the command line.
+ */
+public final class CalendarServer {
+    private static final int BACKLOG = 16_384;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/uuuu");
+
+    private final CalendarStore store;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // store must be safe to call from many threads at once
+    public CalendarServer(CalendarStore store, int port) throws IOException {
+        this.store = store;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), BACKLOG);
+        this.executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/day", this::handleDay);
+        server.createContext("/month", this::handleMonth);
+        server.createContext("/events", this::handleEvents);
+    }
+
+    // usage: CalendarServer [port] [events file] [concurrent|packed|objects]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8151;
+        Path source = Path.of(args.length > 1 ? args[1] : "events.txt");
+        CalendarStore store = backend(args.length > 2 ? args[2] : "concurrent");
+        LoadResult loaded = MyCalendarTester.load(source);
+        for (ParseError err : loaded.errors()) System.err.println("Skipped " + err);
+        store.addAll(loaded.events());
+        CalendarServer server = new CalendarServer(store, port);
+        server.start();
+        System.out.println("Calendar server listening on http://127.0.0.1:" + server.port() + "/");
+    }
+
+    static CalendarStore backend(String name) {
+        return switch (name) {
+            case "concurrent" -> new ConcurrentEventStore();
+            case "packed" -> CalendarStore.synchronizedStore(new PackedEventStore());
+            case "objects" -> CalendarStore.synchronizedStore(new EventStore());
+            default -> throw new IllegalArgumentException("Unknown store backend: " + name);
+        };
+    }
+
+    public void start() { server.start(); }
+
+    public int port() { return server.getAddress().getPort(); }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when available; looked up
+    // reflectively so the code still builds and runs on JDK 17
+    static ExecutorService requestExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handleDay(HttpExchange ex) throws IOException {
+        if (!allow(ex, "GET")) return;
+        try {
+            LocalDate d = InputValidators.parseDateStrict(required(query(ex), "date"));
+            List<String> lines = store.formattedOccurrencesOn(d);
+            reply(ex, 200, d.format(DATE_FORMAT) + "\n" + String.join("\n", lines));
+        } catch (IllegalArgumentException e) {
+            reply(ex, 400, e.getMessage());
+        }
+    }
+
+    private void handleMonth(HttpExchange ex) throws IOException {
+        if (!allow(ex, "GET")) return;
+        try {
+            YearMonth ym = YearMonth.parse(required(query(ex), "month"));
+            String days = store.occupiedDays(ym).stream().mapToObj(Integer::toString)
+                    .collect(Collectors.joining(","));
+            reply(ex, 200, days);
+        } catch (DateTimeParseException e) {
+            reply(ex, 400, "Invalid month. Please use YYYY-MM format.");
+        } catch (IllegalArgumentException e) {
+            reply(ex, 400, e.getMessage());
+        }
+    }
+
+    private void handleEvents(HttpExchange ex) throws IOException {
+        try {
+            Map<String, String> q = query(ex); // a malformed %-escape is a 400 too
+            switch (ex.getRequestMethod()) {
+                case "GET" -> reply(ex, 200, eventList());
+                case "POST" -> {
+                    String name = required(q, "name");
+                    LocalDate date = InputValidators.parseDateStrict(required(q, "date"));
+                    LocalTime start = InputValidators.parseTimeStrict(required(q, "start"));
+                    LocalTime end = InputValidators.parseTimeStrict(required(q, "end"));
+                    if (!end.isAfter(start))
+                        throw new IllegalArgumentException("End time must be after start time.");
+                    try {
+                        store.addOneTime(new OneTimeEvent(name, date, new TimeRange(start, end)));
+                        reply(ex, 201, "Event created.");
+                    } catch (IllegalArgumentException conflict) {
+                        reply(ex, 409, conflict.getMessage());
+                    }
+                }
+                case "DELETE" -> {
+                    int n;
+                    if (q.containsKey("recurring")) {
+                        n = store.deleteRecurringByName(q.get("recurring"));
+                    } else {
+                        LocalDate d = InputValidators.parseDateStrict(required(q, "date"));
+                        n = q.containsKey("name") ? (store.deleteSelected(d, q.get("name")) ? 1 : 0)
+                                                  : store.deleteAllOn(d);
+                    }
+                    reply(ex, n == 0 ? 404 : 200, n + " event(s) deleted.");
+                }
+                default -> reply(ex, 405, "Method not allowed.");
+            }
+        } catch (IllegalArgumentException e) {
+            reply(ex, 400, e.getMessage());
+        }
+    }
+
+    private String eventList() {
+        StringBuilder sb = new StringBuilder("ONE TIME EVENTS\n");
+        for (OneTimeEvent o : store.oneTimeEventsSorted()) {
+            sb.append(o.date().format(DATE_FORMAT)).append(' ').append(o.time().start())
+              .append(" - ").append(o.time().end()).append(' ').append(o.name()).append('\n');
+        }
+        sb.append("RECURRING EVENTS\n");
+        for (RecurringEvent r : store.recurringEventsSorted()) {
+            sb.append(r.name()).append(' ').append(r.rule().token()).append(' ').append(r.time().start())
+              .append(' ').append(r.time().end()).append(' ').append(r.from().format(DATE_FORMAT))
+              .append(' ').append(r.to().format(DATE_FORMAT)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static boolean allow(HttpExchange ex, String method) throws IOException {
+        if (ex.getRequestMethod().equals(method)) return true;
+        reply(ex, 405, "Method not allowed.");
+        return false;
+    }
+
+    private static String required(Map<String, String> q, String key) {
+        String v = q.get(key);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException("Missing parameter: " + key);
+        return v.trim();
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> out = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) return out;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static void reply(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
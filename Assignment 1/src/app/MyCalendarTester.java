@@ -1,26 +1,33 @@
 package app;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.EnumSet;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Scanner;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
+import model.Event;
 import model.OneTimeEvent;
 import model.RecurringEvent;
 import model.TimeRange;
 import service.CalendarPrinter;
+import service.CalendarRenderer;
+import service.EventJournal;
 import service.EventParser;
+import service.EventSearchIndex;
+import service.EventSnapshot;
 import service.EventStore;
+import service.IcsFormat;
 import service.InputValidators;
+import service.LoadResult;
+import service.ParseError;
+import service.ProgressiveLoader;
 
 //main class, this class runs the Java app.
 // It provides a command-line interface for the user
@@ -34,34 +41,95 @@ import service.InputValidators;
  */
 
 public final class MyCalendarTester {
+    private static final int FIND_LIMIT = 50;
 
     public static void main(String[] args) {
+        // --serve [port] [events file]: run headless instead of the menu
+        if (args.length > 0 && args[0].equals("--serve")) {
+            try {
+                CalendarServer.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                System.out.println("Could not start server: " + e.getMessage());
+            }
+            return;
+        }
+        // --batch <commands> [events file] [result log]: run a command file (see BatchRunner)
+        if (args.length > 0 && args[0].equals("--batch")) {
+            try {
+                BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                System.out.println("Batch failed: " + e.getMessage());
+            }
+            return;
+        }
         Scanner in = new Scanner(System.in);
         EventStore store = new EventStore();
 
-        // 1) Load events from event.txt 
-        store.addAll(EventParser.load(Path.of("events.txt")));
+        // 1) Resume the last session (calendar.bin + its journal) if there is one;
+        //    otherwise load events.txt, or the file given on the command line
+        //    (either the text format or a binary snapshot)
+        Path session = Path.of("calendar.bin");
+        boolean resume = args.length == 0 && Files.exists(session);
+        Path source = resume ? session : Path.of(args.length > 0 ? args[0] : "events.txt");
+        LocalDate today = LocalDate.now();
+
+        // A snapshot with nothing journaled after it is date-ordered on disk:
+        // load this month first and stream the rest in while the menu runs
+        ProgressiveLoader progressive = null;
+        EventJournal journal = null;
+        if (EventSnapshot.isSnapshot(source) && !(resume && EventJournal.hasPendingChanges(session))) {
+            try {
+                progressive = ProgressiveLoader.open(source, store, YearMonth.from(today));
+            } catch (IOException ex) {
+                System.out.println("Error reading snapshot: " + ex.getMessage());
+            }
+            // the snapshot being loaded is already on disk, so changes are journaled from the start
+            if (progressive != null) journal = attachJournal(source, session, store);
+        }
+        if (progressive == null) {
+            if (!resume) {
+                LoadResult loaded = load(source);
+                for (ParseError err : loaded.errors()) System.out.println("Skipped " + err);
+                store.addAll(loaded.events());
+            }
+            journal = openJournal(session, store, resume);
+        }
 
         // 2) Show current month with today highlighted and {} for any event days
-        LocalDate today = LocalDate.now();
-        CalendarPrinter.printMonth(YearMonth.from(today), today,
-                d -> !store.formattedOccurrencesOn(d).isEmpty());
+        CalendarRenderer view = new CalendarRenderer(store); // caches month text until a change touches it
+        view.printMonth(YearMonth.from(today), today);
+        EventSearchIndex search = new EventSearchIndex(store); // follows every add and delete
 
         // 3) Menu loop
         while (true) {
+            if (progressive != null && progressive.pump()) progressive = null;
             // the command given by the requirements on Canvas
-            System.out.println("[V]iew by  [C]reate  [G]o to  [E]vent list  [D]elete  [Q]uit");
+            System.out.println("[V]iew by  [C]reate  [G]o to  [E]vent list  [F]ind  [D]elete  [Q]uit");
             String choice = in.nextLine().trim().toUpperCase(Locale.ROOT);
                 //switch method for the command for more cleaner look and better readibility
             switch (choice) {
-                case "V" -> handleView(in, store, today);
+                case "V" -> handleView(in, view, today);
                 case "C" -> handleCreate(in, store);
-                case "G" -> handleGoTo(in, store);
+                case "G" -> handleGoTo(in, view);
                 case "E" -> handleEventList(store);
+                case "F" -> handleFind(in, search);
                 case "D" -> handleDelete(in, store);
                 case "Q" -> {
                     System.out.println("Good Bye");
                     EventParser.save(Path.of("output.txt"), store.all());
+                    if (progressive != null) progressive.ensureAll();
+                    // no journal yet (opening it failed): start() writes the full snapshot itself,
+                    // so a freshly opened journal needs no checkpoint on top
+                    boolean fresh = journal == null;
+                    if (fresh) journal = openJournal(session, store, false);
+                    if (journal != null) {
+                        try {
+                            if (!fresh) journal.checkpoint();
+                            journal.close();
+                        } catch (IOException ex) {
+                            System.out.println("Error writing snapshot: " + ex.getMessage());
+                        }
+                    }
                     return;
                 }
                 default -> System.out.println("Invalid option. Please choose from the menu.");
@@ -69,8 +137,39 @@ public final class MyCalendarTester {
         }
     }
 
+    private static EventJournal openJournal(Path session, EventStore store, boolean resume) {
+        try {
+            return resume ? EventJournal.resume(session, store) : EventJournal.start(session, store);
+        } catch (IOException ex) {
+            System.out.println("Error opening journal, changes will only be saved on quit: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private static EventJournal attachJournal(Path source, Path session, EventStore store) {
+        try {
+            return source.equals(session) ? EventJournal.attach(session, store)
+                                          : EventJournal.attachCopy(source, session, store);
+        } catch (IOException ex) {
+            System.out.println("Error opening journal, changes will only be saved on quit: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    // Snapshots are a bulk read, .ics files go through the iCalendar reader;
+    // anything else goes through the text parser
+    static LoadResult load(Path source) {
+        if (IcsFormat.isIcs(source)) return IcsFormat.read(source);
+        if (!EventSnapshot.isSnapshot(source)) return EventParser.read(source);
+        try {
+            return new LoadResult(EventSnapshot.read(source), List.of());
+        } catch (IOException ex) {
+            return new LoadResult(List.of(), List.of(new ParseError(0, ex.getMessage())));
+        }
+    }
+
     //view handler logic
-    private static void handleView(Scanner in, EventStore store, LocalDate today) {
+    private static void handleView(Scanner in, CalendarRenderer view, LocalDate today) {
         System.out.println("[D]ay view or [M]view ?");
         String v = in.nextLine().trim().toUpperCase(Locale.ROOT);
 
@@ -78,7 +177,7 @@ public final class MyCalendarTester {
         if (v.equals("D")) {
             LocalDate cursor = today;
             while (true) {
-                CalendarPrinter.printDay(cursor, store.formattedOccurrencesOn(cursor));
+                view.printDay(cursor);
                 System.out.println("[P]revious or [N]ext or [G]o back to the main menu ?");
                 String cmd = in.nextLine().trim().toUpperCase(Locale.ROOT);
                 if (cmd.equals("P")) cursor = cursor.minusDays(1);
@@ -90,7 +189,7 @@ public final class MyCalendarTester {
         } else if (v.equals("M")) {
             YearMonth ym = YearMonth.from(today);
             while (true) {
-                CalendarPrinter.printMonth(ym, today, d -> !store.formattedOccurrencesOn(d).isEmpty());
+                view.printMonth(ym, today);
                 System.out.println("[P]revious or [N]ext or [G]o back to main menu ?");
                 String cmd = in.nextLine().trim().toUpperCase(Locale.ROOT);
                 if (cmd.equals("P")) ym = ym.minusMonths(1);
@@ -130,47 +229,40 @@ public final class MyCalendarTester {
         }
     }
 
-    private static void handleGoTo(Scanner in, EventStore store) {
+    private static void handleGoTo(Scanner in, CalendarRenderer view) {
         try {
             System.out.print("Date (MM/DD/YYYY): ");
             LocalDate d = InputValidators.parseDateStrict(in.nextLine().trim());
-            CalendarPrinter.printDay(d, store.formattedOccurrencesOn(d));
+            view.printDay(d);
         } catch (IllegalArgumentException ex) {
             System.out.println(ex.getMessage());
         }
     }
 
     private static void handleEventList(EventStore store) {
-        System.out.println("ONE TIME EVENTS");
-        var oneTimes = store.oneTimeEventsSorted();
-        Map<Integer, List<OneTimeEvent>> byYear = oneTimes.stream()
-                .collect(Collectors.groupingBy(o -> o.date().getYear(), TreeMap::new, Collectors.toList()));
-        byYear.forEach((year, list) -> {
-            System.out.println("\n" + year);
-            for (OneTimeEvent o : list) {
+        System.out.print(CalendarPrinter.appendEventList(new StringBuilder(4096),
+                store.oneTimeEventsSorted(), store.recurringEventsSorted()));
+    }
+
+    // Words are matched as prefixes of words in the name: "cs lec" finds "CS151 Lecture"
+    private static void handleFind(Scanner in, EventSearchIndex search) {
+        System.out.print("Search for: ");
+        List<Event> found = search.search(in.nextLine(), FIND_LIMIT + 1);
+        if (found.isEmpty()) {
+            System.out.println("No matching event found.");
+            return;
+        }
+        for (Event e : found.subList(0, Math.min(found.size(), FIND_LIMIT))) {
+            if (e instanceof OneTimeEvent o) {
                 System.out.printf("  %s %s %s - %s %s%n",
                         o.date().getDayOfWeek(), formatDate(o.date()), o.time().start(), o.time().end(), o.name());
+            } else if (e instanceof RecurringEvent r) {
+                System.out.printf("  %s %s %s %s %s %s%n",
+                        r.name(), r.rule().token(), r.time().start(), r.time().end(),
+                        formatDate(r.from()), formatDate(r.to()));
             }
-        });
-
-        System.out.println("\nRECURRING EVENTS");
-        for (RecurringEvent r : store.recurringEventsSorted()) {
-            System.out.printf("%s %s %s %s %s %s%n",
-                    r.name(), daysToken(r.days()), r.time().start(), r.time().end(),
-                    formatDate(r.from()), formatDate(r.to()));
         }
-    }
-
-    private static String daysToken(EnumSet<DayOfWeek> set) {
-        StringBuilder sb = new StringBuilder();
-        if (set.contains(DayOfWeek.SUNDAY)) sb.append('S');
-        if (set.contains(DayOfWeek.MONDAY)) sb.append('M');
-        if (set.contains(DayOfWeek.TUESDAY)) sb.append('T');
-        if (set.contains(DayOfWeek.WEDNESDAY)) sb.append('W');
-        if (set.contains(DayOfWeek.THURSDAY)) sb.append('R'); // R = Thu
-        if (set.contains(DayOfWeek.FRIDAY)) sb.append('F');
-        if (set.contains(DayOfWeek.SATURDAY)) sb.append('A'); // A = Sat
-        return sb.toString();
+        if (found.size() > FIND_LIMIT) System.out.println("  (showing the first " + FIND_LIMIT + ")");
     }
 
     private static String formatDate(LocalDate d) {
@@ -185,14 +277,13 @@ public final class MyCalendarTester {
                 try {
                     System.out.print("Enter the date (MM/DD/YYYY): ");
                     LocalDate d = InputValidators.parseDateStrict(in.nextLine().trim());
-                    var lines = store.formattedOccurrencesOn(d).stream()
-                            .filter(s -> !s.toLowerCase(Locale.ROOT).contains("(recurring)")) // only display; not needed if not labeled
-                            .toList();
-                    if (lines.isEmpty()) {
+                    List<OneTimeEvent> candidates = store.oneTimeEventsOn(d); // only one-time events can be deleted here
+                    if (candidates.isEmpty()) {
                         System.out.println("Error: No event found with the specified name on this date.");
                         return;
                     }
-                    for (String s : lines) System.out.println("  " + s);
+                    for (OneTimeEvent o : candidates)
+                        System.out.println("  " + o.name() + " : " + o.time().start() + " - " + o.time().end());
                     System.out.print("Enter the name of the event to delete: ");
                     String name = in.nextLine().trim();
                     boolean removed = store.deleteSelected(d, name);
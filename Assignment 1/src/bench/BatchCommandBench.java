@@ -0,0 +1,77 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import app.BatchRunner;
+import service.EventStore;
+
+/**
+ * Times BatchRunner over a generated command file.
+ *
+ * The file mixes creates (ten hour slots a day, a few of them overlapping)
+ * with a goto or a delete after every 20 or so creates, so the runner
+ * validates many small create groups rather than one big import. View output is
+ * discarded; the result log goes to a temporary file.
+ *
+ * Usage: java bench.BatchCommandBench [commands]   (default 500000)
+ */
+public final class BatchCommandBench {
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("M/d/uuuu");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("H:mm");
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Path commands = Files.createTempFile("calendar-batch", ".txt");
+        Path log = Files.createTempFile("calendar-batch", ".jsonl");
+        Random rnd = new Random(7);
+        int lines = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(commands)) {
+            for (int i = 0; i < n; i++) {
+                // ten hour-long slots a day from 8:00, some with a meeting
+                LocalDate day = SyntheticCalendar.START.plusDays(i / 10);
+                int start = 8 * 60 + (i % 10) * 60 + 15 * rnd.nextInt(3);
+                String date = day.format(DATE);
+                String name = "Meeting " + rnd.nextInt(500);
+                w.write("create " + date + " " + time(start) + " " + time(start + 15 + 15 * rnd.nextInt(3)) + " " + name);
+                w.newLine();
+                lines++;
+                int r = rnd.nextInt(40);
+                if (r == 0) w.write("goto " + date);
+                else if (r == 1) w.write("delete " + date + " " + name);
+                else continue;
+                w.newLine();
+                lines++;
+            }
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            EventStore store = new EventStore();
+            try (BufferedReader in = Files.newBufferedReader(commands);
+                 Writer out = Writer.nullWriter();
+                 Writer results = Files.newBufferedWriter(log)) {
+                BatchRunner runner = new BatchRunner(store, out, results);
+                long t0 = System.nanoTime();
+                runner.run(in);
+                double s = (System.nanoTime() - t0) / 1e9;
+                System.out.printf("round %d: %d commands (%d failed) in %.0f ms, %.0f commands/s%n",
+                        round, runner.commands(), runner.failed(), s * 1e3, runner.commands() / s);
+            }
+        }
+        System.out.println(lines + " command lines, log in " + log);
+        Files.delete(commands);
+    }
+
+    private static String time(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60).format(TIME);
+    }
+}
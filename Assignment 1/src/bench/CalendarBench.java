@@ -0,0 +1,275 @@
+package bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+import service.CalendarPrinter;
+import service.CalendarRenderer;
+import service.EventParser;
+import service.EventStore;
+import service.LoadResult;
+
+/**
+ * Regression benchmarks for EventStore, EventParser, CalendarPrinter and
+ * CalendarRenderer over synthetic calendars (see SyntheticCalendar) of 1k,
+ * 100k and 1M events.
+ *
+ * Each benchmark runs WARMUP_ROUNDS untimed rounds and then ROUNDS timed
+ * rounds of a fixed number of operations; mutating benchmarks redo their
+ * untimed setup before every round so each round sees the same store state.
+ * Reported per operation: mean time and bytes allocated by the benchmark
+ * thread (com.sun.management.ThreadMXBean, i.e. what JMH's GC profiler
+ * reports as gc.alloc.rate.norm).
+ *
+ * Results go to stdout and, as JSON, to the --out file so runs from two
+ * builds can be diffed.
+ *
+ * Usage: java bench.CalendarBench [--out file] [events ...]
+ *        (defaults bench-results.json, 1000 100000 1000000)
+ * Run with a fixed heap (e.g. -Xms4g -Xmx4g) for stable numbers.
+ */
+public final class CalendarBench {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final int QUERIES = 20_000;
+    private static final int MUTATIONS = 2_000;
+    private static final LocalDate SCRATCH = LocalDate.of(2030, 1, 1); // after the synthetic data
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private CalendarBench() { }
+
+    // one benchmark: untimed setup before each round, then ops() timed calls of op(i)
+    private interface Bench {
+        default void setup() throws IOException { }
+        int ops();
+        long op(int i) throws IOException;
+    }
+
+    private record Result(String name, int events, int ops, double nsPerOp, double bytesPerOp) { }
+
+    public static void main(String[] args) throws IOException {
+        Path out = Path.of("bench-results.json");
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--out")) out = Path.of(args[++i]);
+            else sizes.add(Integer.parseInt(args[i]));
+        }
+        if (sizes.isEmpty()) sizes = List.of(1_000, 100_000, 1_000_000);
+
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-24s %10s %14s %14s%n", "benchmark", "events", "ns/op", "B/op");
+        for (int n : sizes) {
+            for (Result r : runAll(n)) {
+                System.out.printf("%-24s %10d %14.1f %14.1f%n", r.name, r.events, r.nsPerOp, r.bytesPerOp);
+                results.add(r);
+            }
+        }
+        Files.writeString(out, toJson(results));
+        System.out.println("Results written to " + out);
+    }
+
+    private static List<Result> runAll(int n) throws IOException {
+        List<Event> events = SyntheticCalendar.generate(n, 42);
+        EventStore store = new EventStore();
+        store.addAll(events);
+        int days = SyntheticCalendar.YEARS * 365;
+        int months = SyntheticCalendar.YEARS * 12;
+        LocalDate[] queryDays = new LocalDate[QUERIES];
+        TimeRange[] queryTimes = new TimeRange[QUERIES];
+        Random rnd = new Random(7);
+        for (int i = 0; i < QUERIES; i++) {
+            queryDays[i] = SyntheticCalendar.START.plusDays(rnd.nextInt(days));
+            int s = 6 * 60 + rnd.nextInt(14 * 60);
+            queryTimes[i] = range(s, s + 30);
+        }
+        // read takes the two-line events file format, not save's one-line output
+        Path file = Files.createTempFile("calendar-bench", ".txt");
+        Path saved = Files.createTempFile("calendar-bench", ".out");
+        writeEventsFile(file, events);
+        LoadResult fixture = EventParser.read(file);
+        int loaded = fixture.events().size();
+        if (loaded != n || !fixture.errors().isEmpty()) throw new IllegalStateException("Load fixture holds " + loaded + " events, expected " + n + ".");
+        int fileOps = Math.max(1, 100_000 / n);
+
+        List<Result> results = new ArrayList<>();
+        results.add(measure("formattedOccurrencesOn", n, new Bench() {
+            public int ops() { return QUERIES; }
+            public long op(int i) { return store.formattedOccurrencesOn(queryDays[i]).size(); }
+        }));
+        results.add(measure("hasConflict", n, new Bench() {
+            public int ops() { return QUERIES; }
+            public long op(int i) { return store.hasConflict(queryDays[i], queryTimes[i]) ? 1 : 0; }
+        }));
+        results.add(measure("renderMonth", n, new Bench() {
+            public int ops() { return months; }
+            public long op(int i) {
+                YearMonth ym = YearMonth.from(SyntheticCalendar.START).plusMonths(i);
+                PrintStream console = System.out;
+                System.setOut(DISCARD);
+                try {
+                    CalendarPrinter.printMonth(ym, SyntheticCalendar.START, store.occupiedDays(ym));
+                } finally {
+                    System.setOut(console);
+                }
+                return ym.getMonthValue();
+            }
+        }));
+        CalendarRenderer view = new CalendarRenderer(store, DISCARD);
+        results.add(measure("renderMonthCached", n, new Bench() {
+            public int ops() { return months; }
+            public long op(int i) {
+                view.printMonth(YearMonth.from(SyntheticCalendar.START).plusMonths(i), SyntheticCalendar.START);
+                return i;
+            }
+        }));
+        // the mutation benchmarks share scratch days after the synthetic data:
+        // 16 half-hour slots per day from 8:00
+        results.add(measure("addOneTime", n, new Bench() {
+            public void setup() { clearScratch(store); }
+            public int ops() { return MUTATIONS; }
+            public long op(int i) { store.addOneTime(scratch(i)); return i; }
+        }));
+        results.add(measure("deleteSelected", n, new Bench() {
+            public void setup() { fillScratch(store); }
+            public int ops() { return MUTATIONS; }
+            public long op(int i) { return store.deleteSelected(scratchDay(i), scratchName(i)) ? 1 : 0; }
+        }));
+        results.add(measure("deleteAllOn", n, new Bench() {
+            public void setup() { fillScratch(store); }
+            public int ops() { return MUTATIONS / 16; }
+            public long op(int i) { return store.deleteAllOn(SCRATCH.plusDays(i)); }
+        }));
+        results.add(measure("deleteRecurringByName", n, new Bench() {
+            public void setup() {
+                List<Event> rec = new ArrayList<>();
+                for (int i = 0; i < MUTATIONS; i++) {
+                    rec.add(new RecurringEvent("bench recurring " + i, EnumSet.of(DayOfWeek.of(i % 7 + 1)),
+                            range(7 * 60, 7 * 60 + 15), SCRATCH, SCRATCH.plusDays(120)));
+                }
+                store.addAll(rec);
+            }
+            public int ops() { return MUTATIONS; }
+            public long op(int i) { return store.deleteRecurringByName("bench recurring " + i); }
+        }));
+        results.add(measure("EventParser.read", n, new Bench() {
+            public int ops() { return fileOps; }
+            public long op(int i) { return EventParser.read(file).events().size(); }
+        }));
+        results.add(measure("EventParser.save", n, new Bench() {
+            public int ops() { return fileOps; }
+            public long op(int i) { EventParser.save(saved, events); return i; }
+        }));
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(saved);
+        return results;
+    }
+
+    private static long blackhole;
+
+    private static Result measure(String name, int events, Bench b) throws IOException {
+        for (int r = 0; r < WARMUP_ROUNDS; r++) round(b);
+        long nanos = 0, bytes = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long[] t = round(b);
+            nanos += t[0];
+            bytes += t[1];
+        }
+        double ops = (double) b.ops() * ROUNDS;
+        return new Result(name, events, b.ops(), nanos / ops, bytes / ops);
+    }
+
+    private static long[] round(Bench b) throws IOException {
+        b.setup();
+        int ops = b.ops();
+        long sink = 0;
+        long a0 = allocated(), t0 = System.nanoTime();
+        for (int i = 0; i < ops; i++) sink += b.op(i);
+        long t1 = System.nanoTime(), a1 = allocated();
+        blackhole += sink;
+        return new long[] {t1 - t0, a1 - a0};
+    }
+
+    private static long allocated() { return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()); }
+
+    private static LocalDate scratchDay(int i) { return SCRATCH.plusDays(i / 16); }
+    private static String scratchName(int i) { return "bench " + i; }
+
+    private static OneTimeEvent scratch(int i) {
+        int s = 8 * 60 + (i % 16) * 30;
+        return new OneTimeEvent(scratchName(i), scratchDay(i), range(s, s + 30));
+    }
+
+    private static void clearScratch(EventStore store) {
+        for (int d = 0; d <= MUTATIONS / 16; d++) store.deleteAllOn(SCRATCH.plusDays(d));
+    }
+
+    private static void fillScratch(EventStore store) {
+        clearScratch(store);
+        for (int i = 0; i < MUTATIONS; i++) {
+            OneTimeEvent e = scratch(i);
+            store.addOneTime(e);
+        }
+    }
+
+    // name line, then "date start end" or "days start end from to [exceptions]"
+    private static void writeEventsFile(Path file, List<Event> events) throws IOException {
+        DateTimeFormatter date = DateTimeFormatter.ofPattern("M/d/uuuu");
+        DateTimeFormatter time = DateTimeFormatter.ofPattern("H:mm");
+        List<String> lines = new ArrayList<>(events.size() * 2);
+        for (Event e : events) {
+            lines.add(e.name());
+            if (e instanceof OneTimeEvent o) {
+                lines.add(o.date().format(date) + " " + o.time().start().format(time) + " " + o.time().end().format(time));
+            } else if (e instanceof RecurringEvent r) {
+                StringBuilder sb = new StringBuilder(r.rule().token()).append(' ')
+                        .append(r.time().start().format(time)).append(' ').append(r.time().end().format(time)).append(' ')
+                        .append(r.from().format(date)).append(' ').append(r.to().format(date));
+                long[] skipped = r.rule().exceptions();
+                for (int i = 0; i < skipped.length; i++) {
+                    sb.append(i == 0 ? ' ' : ',').append(LocalDate.ofEpochDay(skipped[i]).format(date));
+                }
+                lines.add(sb.toString());
+            }
+        }
+        Files.write(file, lines);
+    }
+
+    private static TimeRange range(int start, int end) {
+        return new TimeRange(LocalTime.of(start / 60, start % 60), LocalTime.of(end / 60, end % 60));
+    }
+
+    private static String toJson(List<Result> results) {
+        StringBuilder sb = new StringBuilder("{\n  \"java\": \"")
+                .append(System.getProperty("java.version")).append("\",\n  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            sb.append(String.format(Locale.ROOT,
+                    "    {\"benchmark\": \"%s\", \"events\": %d, \"ops\": %d, \"nsPerOp\": %.1f, \"bytesPerOp\": %.1f}",
+                    r.name, r.events, r.ops, r.nsPerOp, r.bytesPerOp));
+            sb.append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        return sb.append("  ]\n}\n").toString();
+    }
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+}
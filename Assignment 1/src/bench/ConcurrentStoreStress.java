@@ -0,0 +1,94 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import model.OneTimeEvent;
+import model.TimeRange;
+import service.ConcurrentEventStore;
+
+/**
+ * Multi-threaded stress run for ConcurrentEventStore.
+ *
+ * For 1, 2, 4 ... readers (up to twice the core count) it measures day-view
+ * read throughput while WRITERS threads keep adding and deleting one-time
+ * events on a small set of hot days; readers mix hot days with the
+ * preloaded synthetic calendar. Afterwards it checks that no two
+ * one-time events on any day overlap, i.e. that concurrent conflict-checked
+ * inserts never let a conflict through.
+ *
+ * Usage: java bench.ConcurrentStoreStress [seconds per step]   (default 2)
+ */
+public final class ConcurrentStoreStress {
+    private static final int WRITERS = 2;
+    private static final int HOT_DAYS = 14;
+    private static final LocalDate START = LocalDate.of(2030, 1, 1); // after the synthetic data, which may overlap
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        ConcurrentEventStore store = new ConcurrentEventStore();
+        store.addAll(new ArrayList<>(SyntheticCalendar.generate(50_000, 3)));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d cores, %d writers%n", cores, WRITERS);
+        System.out.printf("%-8s %16s %16s%n", "readers", "reads/s", "writes/s");
+        for (int readers = 1; readers <= Math.max(2, cores * 2); readers *= 2) {
+            step(store, readers, seconds);
+        }
+
+        int overlaps = 0;
+        for (int d = 0; d < HOT_DAYS; d++) {
+            List<OneTimeEvent> day = store.oneTimeEventsOn(START.plusDays(d));
+            for (int i = 1; i < day.size(); i++) {
+                if (day.get(i - 1).time().conflicts(day.get(i).time())) overlaps++;
+            }
+        }
+        System.out.println(overlaps == 0 ? "OK: no overlapping one-time events"
+                                         : "FAILED: " + overlaps + " overlapping one-time events");
+    }
+
+    private static void step(ConcurrentEventStore store, int readers, int seconds) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder reads = new LongAdder(), writes = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (running.get()) {
+                    LocalDate d = START.plusDays(rnd.nextInt(HOT_DAYS));
+                    int s = 6 * 60 + rnd.nextInt(14 * 60);
+                    try {
+                        store.addOneTime(new OneTimeEvent("Load " + s, d,
+                                TimeRange.ofMinutes(s, s + 30)));
+                    } catch (IllegalArgumentException conflict) {
+                        store.deleteSelected(d, "Load " + s);
+                    }
+                    writes.increment();
+                }
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long n = 0;
+                while (running.get()) {
+                    LocalDate d = rnd.nextBoolean() ? START.plusDays(rnd.nextInt(HOT_DAYS))
+                            : SyntheticCalendar.START.plusDays(rnd.nextInt(SyntheticCalendar.YEARS * 365));
+                    n += store.formattedOccurrencesOn(d).size();
+                    reads.increment();
+                }
+                if (n < 0) System.out.print(""); // keep results alive
+            }));
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread t : threads) t.join();
+        System.out.printf("%-8d %16.0f %16.0f%n", readers,
+                reads.sum() / (double) seconds, writes.sum() / (double) seconds);
+    }
+}
@@ -0,0 +1,80 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import model.Event;
+import service.DayViewCache;
+import service.EventStore;
+
+/**
+ * Day-view reads with and without DayViewCache over a synthetic calendar.
+ *
+ * The reads imitate day paging: a cursor that steps a day forward or back
+ * at random inside a two-week window, and now and then jumps to another
+ * date (a goto). Every few hundred reads a day under the cursor is
+ * cleared, so the cached run also pays for invalidation and re-reads.
+ *
+ * Usage: java bench.DayViewBench [events]   (default 100000)
+ */
+public final class DayViewBench {
+    private static final int READS = 50_000;
+    private static final int ROUNDS = 5;
+
+    private record Run(double micros, long deleted) { }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Event> events = SyntheticCalendar.generate(n, 42);
+        System.out.printf("%d events%n", events.size());
+
+        long hits = 0, misses = 0, evictions = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            // each run gets a fresh store, so both see the same days and the same deletes
+            Run direct = run(load(events), null);
+            EventStore store = load(events);
+            DayViewCache cache = new DayViewCache(store);
+            Run cached = run(store, cache);
+            System.out.printf("round %d: direct %6.2f us/read  cached %6.2f us/read  hit %.1f%%  %d days, %.0f KB"
+                    + "  (%d / %d events deleted)%n", round, direct.micros(), cached.micros(), 100 * cache.hitRatio(),
+                    cache.size(), cache.bytes() / 1e3, direct.deleted(), cached.deleted());
+            hits += cache.hits();
+            misses += cache.misses();
+            evictions += cache.evictions();
+        }
+        System.out.printf("%d hits, %d misses, %d evictions%n", hits, misses, evictions);
+    }
+
+    private static EventStore load(List<Event> events) {
+        EventStore store = new EventStore();
+        store.addAll(events);
+        return store;
+    }
+
+    // mean microseconds per read; the same seed gives both runs the same walk
+    private static Run run(EventStore store, DayViewCache cache) {
+        Random rnd = new Random(11);
+        int span = SyntheticCalendar.YEARS * 365;
+        LocalDate anchor = SyntheticCalendar.START.plusDays(rnd.nextInt(span));
+        int offset = 0;
+        long lines = 0, deleted = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            int r = rnd.nextInt(100);
+            if (r == 0) {
+                anchor = SyntheticCalendar.START.plusDays(rnd.nextInt(span));
+                offset = 0;
+            } else {
+                offset = Math.max(-7, Math.min(7, offset + (r < 50 ? 1 : -1)));
+            }
+            LocalDate d = anchor.plusDays(offset);
+            if (i % 500 == 499) deleted += store.deleteAllOn(d);
+            List<String> day = cache == null ? store.formattedOccurrencesOn(d) : cache.occurrencesOn(d);
+            lines += day.size();
+        }
+        double us = (System.nanoTime() - t0) / 1e3 / READS;
+        if (lines < 0) System.out.println(lines);
+        return new Run(us, deleted);
+    }
+}
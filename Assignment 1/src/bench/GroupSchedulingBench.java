@@ -0,0 +1,74 @@
+package bench;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import model.Event;
+import model.FreeSlot;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+import service.EventStore;
+import service.GroupScheduler;
+
+/**
+ * Times GroupScheduler.commonFreeSlots over many calendars.
+ *
+ * Each synthetic user has a weekly recurring standup plus roughly one
+ * one-time meeting per day on working hours, on a 15-minute grid.
+ *
+ * Usage: java bench.GroupSchedulingBench [calendars] [days]   (default 1000 90)
+ */
+public final class GroupSchedulingBench {
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int calendars = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        LocalDate from = LocalDate.of(2025, 9, 1);
+        LocalDate to = from.plusDays(days - 1);
+
+        List<EventStore> stores = new ArrayList<>(calendars);
+        Random rnd = new Random(1);
+        for (int c = 0; c < calendars; c++) stores.add(calendar(rnd, from, days));
+
+        GroupScheduler scheduler = new GroupScheduler();
+        List<FreeSlot> slots = List.of();
+        for (int i = 0; i < 5; i++) {
+            slots = scheduler.commonFreeSlots(stores, from, to, Duration.ofMinutes(30),
+                    LocalTime.of(8, 0), LocalTime.of(18, 0), 10); // warm-up
+        }
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            slots = scheduler.commonFreeSlots(stores, from, to, Duration.ofMinutes(30),
+                    LocalTime.of(8, 0), LocalTime.of(18, 0), 10);
+        }
+        double ms = (System.nanoTime() - t0) / 1e6 / ROUNDS;
+
+        System.out.printf("%d calendars x %d days, %d cores: %.1f ms per query%n",
+                calendars, days, Runtime.getRuntime().availableProcessors(), ms);
+        if (slots.isEmpty()) System.out.println("  (no common free slot)");
+        for (FreeSlot s : slots) System.out.println("  " + s.date() + " " + s.time().start() + " - " + s.time().end());
+    }
+
+    private static EventStore calendar(Random rnd, LocalDate from, int days) {
+        List<Event> events = new ArrayList<>();
+        int standup = 8 * 60 + 15 * rnd.nextInt(8);
+        events.add(new RecurringEvent("Standup", EnumSet.of(DayOfWeek.of(1 + rnd.nextInt(5))),
+                TimeRange.ofMinutes(standup, standup + 15), from, from.plusDays(days - 1)));
+        for (int d = 0; d < days; d++) {
+            int start = 8 * 60 + 15 * rnd.nextInt(36);
+            events.add(new OneTimeEvent("Meeting", from.plusDays(d),
+                    TimeRange.ofMinutes(start, start + 30 + 15 * rnd.nextInt(4))));
+        }
+        EventStore store = new EventStore();
+        store.addAll(events);
+        return store;
+    }
+}
@@ -0,0 +1,90 @@
+package bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Event;
+import service.EventStore;
+import service.IcsFormat;
+import service.ParseError;
+
+/**
+ * Throughput and peak heap of IcsFormat export and streaming import.
+ *
+ * - export: a store of synthetic events written to a temporary .ics file;
+ * - import (count): the file streamed through a consumer that keeps nothing,
+ *   so its peak heap is the reader's own working set;
+ * - import (store): the file streamed into an EventStore in batches.
+ * Peak heap is the rise of the heap pools' peak usage over the level after
+ * a GC before each phase (pool peaks are summed, so it is an upper bound).
+ * It includes garbage the young generation had not collected yet; the
+ * streaming import needs far less, and also runs under -Xmx48m.
+ *
+ * Usage: java bench.IcsBench [events]   (default 1000000)
+ */
+public final class IcsBench {
+    private static final int BATCH = 10_000;
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("calendar-bench", ".ics");
+        EventStore source = new EventStore();
+        source.addAll(SyntheticCalendar.generate(n, 42));
+
+        long base = settle();
+        long t0 = System.nanoTime();
+        int written = IcsFormat.write(file, source.all());
+        report("export", written, Files.size(file), System.nanoTime() - t0, base);
+        source = null;
+
+        long[] count = new long[1];
+        base = settle();
+        t0 = System.nanoTime();
+        List<ParseError> errors = IcsFormat.read(file, e -> count[0]++);
+        report("import (count)", count[0], Files.size(file), System.nanoTime() - t0, base);
+        if (!errors.isEmpty()) System.out.println("  " + errors.size() + " errors, first: " + errors.get(0));
+
+        EventStore target = new EventStore();
+        List<Event> batch = new ArrayList<>(BATCH);
+        base = settle();
+        t0 = System.nanoTime();
+        IcsFormat.read(file, e -> {
+            batch.add(e);
+            if (batch.size() == BATCH) {
+                target.addAll(batch);
+                batch.clear();
+            }
+        });
+        target.addAll(batch);
+        report("import (store)", target.all().size(), Files.size(file), System.nanoTime() - t0, base);
+        Files.delete(file);
+    }
+
+    private static void report(String phase, long events, long bytes, long nanos, long baseHeap) {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        double s = nanos / 1e9;
+        System.out.printf("%-15s %9d events %8.1f MB %7.0f ms %8.1f MB/s %10.0f events/s  peak heap +%.1f MB%n",
+                phase, events, bytes / 1e6, s * 1e3, bytes / 1e6 / s, events / s, (peak - baseHeap) / 1e6);
+    }
+
+    // GC, then restart the pools' peak tracking; returns the heap in use
+    private static long settle() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP) continue;
+            pool.resetPeakUsage();
+            used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+}
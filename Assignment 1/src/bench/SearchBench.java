@@ -0,0 +1,52 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import model.Event;
+import service.EventSearchIndex;
+import service.EventStore;
+
+/**
+ * Times EventSearchIndex queries over a synthetic calendar.
+ *
+ * Each query asks for the first 50 matches: a single word, a short prefix
+ * matching several words, a word plus a number prefix (two tokens), and
+ * the same restricted to one month.
+ *
+ * Usage: java bench.SearchBench [events]   (default 1000000)
+ */
+public final class SearchBench {
+    private static final int LIMIT = 50;
+    private static final int ROUNDS = 20_000;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        EventStore store = new EventStore();
+        store.addAll(SyntheticCalendar.generate(n, 42));
+
+        long t0 = System.nanoTime();
+        EventSearchIndex index = new EventSearchIndex(store);
+        double buildMs = (System.nanoTime() - t0) / 1e6;
+        System.out.printf("%d events, %d terms, index built in %.0f ms%n", index.size(), index.terms(), buildMs);
+
+        LocalDate from = SyntheticCalendar.START.plusMonths(6);
+        LocalDate to = from.plusMonths(1).minusDays(1);
+        query(index, "lecture", null, null);
+        query(index, "s", null, null);
+        query(index, "office 4", null, null);
+        query(index, "study group 123", null, null);
+        query(index, "lab 4", from, to);
+        query(index, "retro 49", from, to);
+    }
+
+    private static void query(EventSearchIndex index, String q, LocalDate from, LocalDate to) {
+        List<Event> hits = List.of();
+        for (int i = 0; i < ROUNDS; i++) hits = index.search(q, from, to, LIMIT); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) hits = index.search(q, from, to, LIMIT);
+        double us = (System.nanoTime() - t0) / 1e3 / ROUNDS;
+        System.out.printf("  %-18s %-24s %3d hits  %8.2f us/query%n",
+                '"' + q + '"', from == null ? "" : from + ".." + to, hits.size(), us);
+    }
+}
@@ -0,0 +1,157 @@
+package bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import app.CalendarServer;
+import service.ConcurrentEventStore;
+
+/**
+ * Local load generator for CalendarServer.
+ *
+ * Starts a server on an ephemeral port over a synthetic calendar, then runs
+ * CLIENTS concurrent request chains (each sends its next request as soon as
+ * the previous one answers) for the given number of seconds. The mix is
+ * mostly day views, some month views and a few create/delete pairs on days
+ * past the synthetic data. Prints throughput and p50/p99/max latency.
+ *
+ * Usage: java -Dsun.net.httpserver.nodelay=true bench.ServerLoadGenerator
+ *        [clients] [seconds] [events]   (defaults 1000, 10, 100000)
+ * (without the flag every response pays the delayed-ACK wait; see CalendarServer)
+ */
+public final class ServerLoadGenerator {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/uuuu");
+    private static final LocalDate WRITE_START = LocalDate.of(2030, 1, 1);
+
+    private ServerLoadGenerator() { }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int events = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        ConcurrentEventStore store = new ConcurrentEventStore();
+        store.addAll(SyntheticCalendar.generate(events, 42));
+        CalendarServer server = new CalendarServer(store, 0);
+        server.start();
+        String base = "http://127.0.0.1:" + server.port();
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        LongAdder errors = new LongAdder();
+        Chain[] chains = new Chain[clients];
+        CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+        long t0 = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            chains[i] = new Chain(http, base, i, deadline, errors);
+            done[i] = chains[i].run();
+        }
+        CompletableFuture.allOf(done).join();
+        double elapsed = (System.nanoTime() - t0) / 1e9;
+        server.stop();
+
+        int total = 0;
+        for (Chain c : chains) total += c.count;
+        long[] all = new long[total];
+        int at = 0;
+        for (Chain c : chains) {
+            System.arraycopy(c.latencies, 0, all, at, c.count);
+            at += c.count;
+        }
+        Arrays.sort(all);
+        System.out.printf("clients %d, %d requests in %.1f s, %d errors%n",
+                clients, total, elapsed, errors.sum());
+        System.out.printf("throughput %.0f req/s%n", total / elapsed);
+        if (total > 0) {
+            System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[total - 1] / 1e6);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+
+    // One simulated client; only ever touched by the completion of its own
+    // previous request, so its latency log needs no synchronisation.
+    private static final class Chain {
+        private final HttpClient http;
+        private final String base;
+        private final int id;
+        private final long deadline;
+        private final LongAdder errors;
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        long[] latencies = new long[1024];
+        int count;
+
+        Chain(HttpClient http, String base, int id, long deadline, LongAdder errors) {
+            this.http = http;
+            this.base = base;
+            this.id = id;
+            this.deadline = deadline;
+            this.errors = errors;
+        }
+
+        CompletableFuture<Void> run() {
+            next();
+            return finished;
+        }
+
+        private void next() {
+            if (System.nanoTime() >= deadline) {
+                finished.complete(null);
+                return;
+            }
+            HttpRequest req = request(ThreadLocalRandom.current());
+            long start = System.nanoTime();
+            http.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((resp, err) -> {
+                if (err != null || resp.statusCode() >= 500) errors.increment();
+                record(System.nanoTime() - start);
+                next();
+            });
+        }
+
+        private HttpRequest request(ThreadLocalRandom rnd) {
+            int roll = rnd.nextInt(100);
+            if (roll < 80) {
+                LocalDate d = SyntheticCalendar.START.plusDays(rnd.nextInt(365 * SyntheticCalendar.YEARS));
+                return get("/day?date=" + d.format(DATE_FORMAT));
+            }
+            if (roll < 95) {
+                LocalDate d = SyntheticCalendar.START.plusMonths(rnd.nextInt(12 * SyntheticCalendar.YEARS));
+                return get("/month?month=" + d.getYear() + "-" + String.format("%02d", d.getMonthValue()));
+            }
+            // writes go to a day of this client's own, so creates rarely conflict
+            String date = WRITE_START.plusDays(id).format(DATE_FORMAT);
+            String hour = Integer.toString(rnd.nextInt(8, 18));
+            String uri = base + "/events?name=load" + id + "&date=" + date;
+            if (roll < 98) {
+                uri += "&start=" + hour + ":00&end=" + hour + ":30";
+                return HttpRequest.newBuilder(URI.create(uri)).POST(HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return HttpRequest.newBuilder(URI.create(uri)).DELETE().build();
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = nanos;
+        }
+    }
+}
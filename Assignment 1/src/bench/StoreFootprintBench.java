@@ -0,0 +1,108 @@
+package bench;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+
+import model.Event;
+import model.TimeRange;
+import service.EventStore;
+import service.PackedEventStore;
+
+/**
+ * Compares EventStore (object per event) with PackedEventStore (parallel
+ * primitive arrays): retained heap after loading, then day-view, month
+ * and conflict query times over the same synthetic calendar.
+ *
+ * Usage: java bench.StoreFootprintBench [events ...]   (default 100000 1000000)
+ * Run with a fixed heap (e.g. -Xms2g -Xmx2g) for stable numbers.
+ */
+public final class StoreFootprintBench {
+    private static final int QUERIES = 20_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[] {100_000, 1_000_000} : parse(args);
+        System.out.printf("%-10s %-8s %12s %12s %12s %12s%n",
+                "events", "store", "heap MB", "day ns/op", "month us/op", "conflict ns/op");
+        for (int n : sizes) {
+            long base = usedHeap();
+            EventStore objects = new EventStore();
+            objects.addAll(SyntheticCalendar.generate(n, 42));
+            long objectBytes = usedHeap() - base;
+            report(n, "objects", objectBytes,
+                    dayQueries(objects::formattedOccurrencesOn),
+                    monthQueries(objects::occupiedDays),
+                    conflictQueries(objects::hasConflict));
+            objects = null;
+
+            base = usedHeap();
+            PackedEventStore packed = new PackedEventStore();
+            List<Event> generated = SyntheticCalendar.generate(n, 42);
+            packed.addAll(generated);
+            generated = null;
+            long packedBytes = usedHeap() - base;
+            report(n, "packed", packedBytes,
+                    dayQueries(packed::formattedOccurrencesOn),
+                    monthQueries(packed::occupiedDays),
+                    conflictQueries(packed::hasConflict));
+        }
+    }
+
+    private interface DayQuery { List<String> on(LocalDate d); }
+    private interface MonthQuery { java.util.BitSet on(YearMonth ym); }
+    private interface ConflictQuery { boolean test(LocalDate d, TimeRange t); }
+
+    private static double dayQueries(DayQuery q) {
+        Random rnd = new Random(7);
+        long sink = 0, t0 = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            sink += q.on(SyntheticCalendar.START.plusDays(rnd.nextInt(SyntheticCalendar.YEARS * 365))).size();
+        }
+        return done(t0, QUERIES, sink);
+    }
+
+    private static double monthQueries(MonthQuery q) {
+        int months = SyntheticCalendar.YEARS * 12, rounds = 200;
+        long sink = 0, t0 = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (int m = 0; m < months; m++) sink += q.on(YearMonth.from(SyntheticCalendar.START).plusMonths(m)).cardinality();
+        }
+        return done(t0, months * rounds, sink) / 1000.0;
+    }
+
+    private static double conflictQueries(ConflictQuery q) {
+        Random rnd = new Random(11);
+        long sink = 0, t0 = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            int s = 6 * 60 + rnd.nextInt(14 * 60);
+            TimeRange t = new TimeRange(LocalTime.of(s / 60, s % 60), LocalTime.of((s + 30) / 60, (s + 30) % 60));
+            if (q.test(SyntheticCalendar.START.plusDays(rnd.nextInt(SyntheticCalendar.YEARS * 365)), t)) sink++;
+        }
+        return done(t0, QUERIES, sink);
+    }
+
+    private static double done(long t0, int ops, long sink) {
+        double nsPerOp = (System.nanoTime() - t0) / (double) ops;
+        if (sink == 42) System.out.print(""); // keep results alive
+        return nsPerOp;
+    }
+
+    private static void report(int n, String store, long bytes, double day, double month, double conflict) {
+        System.out.printf("%-10d %-8s %12.1f %12.0f %12.1f %12.0f%n",
+                n, store, bytes / (1024.0 * 1024.0), day, month, conflict);
+    }
+
+    static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static int[] parse(String[] args) {
+        int[] out = new int[args.length];
+        for (int i = 0; i < args.length; i++) out[i] = Integer.parseInt(args[i].replace("_", ""));
+        return out;
+    }
+}
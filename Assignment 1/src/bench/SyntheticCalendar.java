@@ -0,0 +1,51 @@
+package bench;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * Deterministic synthetic calendars for the benchmarks: mostly one-time
+ * events spread over YEARS years from START, plus RECURRING_SHARE recurring
+ * events (one or two weekdays, a semester-like date range). Names repeat
+ * from a small vocabulary, like real calendars.
+ */
+public final class SyntheticCalendar {
+    static final LocalDate START = LocalDate.of(2025, 1, 1);
+    static final int YEARS = 3;
+    static final double RECURRING_SHARE = 0.02;
+
+    private static final String[] WORDS = {
+        "Lecture", "Lab", "Meeting", "Standup", "Review", "Dentist", "Lunch", "Gym",
+        "Interview", "Seminar", "Office Hours", "Planning", "Retro", "Call", "Study Group"
+    };
+
+    private SyntheticCalendar() { }
+
+    public static List<Event> generate(int n, long seed) {
+        Random rnd = new Random(seed);
+        int days = YEARS * 365;
+        List<Event> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String name = WORDS[rnd.nextInt(WORDS.length)] + " " + rnd.nextInt(500);
+            int startMinute = 6 * 60 + rnd.nextInt(14 * 60);
+            TimeRange time = TimeRange.ofMinutes(startMinute, startMinute + 15 + rnd.nextInt(106));
+            if (rnd.nextDouble() < RECURRING_SHARE) {
+                EnumSet<DayOfWeek> set = EnumSet.of(DayOfWeek.of(1 + rnd.nextInt(7)), DayOfWeek.of(1 + rnd.nextInt(7)));
+                LocalDate from = START.plusDays(rnd.nextInt(days));
+                out.add(new RecurringEvent(name, set, time, from, from.plusWeeks(8 + rnd.nextInt(10))));
+            } else {
+                out.add(new OneTimeEvent(name, START.plusDays(rnd.nextInt(days)), time));
+            }
+        }
+        return out;
+    }
+}
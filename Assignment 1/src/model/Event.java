@@ -25,4 +25,6 @@ public interface Event {
     String name();
     boolean occursOn(LocalDate date);
     Optional<TimeRange> timeOn(LocalDate date); // present if occurs that day
+    // every occurrence in [from, to], in date order, without allocating per occurrence
+    void forEachOccurrence(LocalDate from, LocalDate to, OccurrenceSink sink);
 }
@@ -0,0 +1,7 @@
+package model;
+
+import java.time.LocalDate;
+
+// A free window on one date, as found by EventStore.findFreeSlots
+public record FreeSlot(LocalDate date, TimeRange time) {
+}
@@ -0,0 +1,10 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// One event on one concrete date
+public record Occurrence(Event event, LocalDate date, TimeRange time) {
+    public static final Comparator<Occurrence> BY_DATE_AND_START =
+            Comparator.comparing(Occurrence::date).thenComparing(o -> o.time().start());
+}
@@ -0,0 +1,7 @@
+package model;
+
+// Receives occurrences from Event.forEachOccurrence without any per-occurrence objects
+@FunctionalInterface
+public interface OccurrenceSink {
+    void occurrence(Event event, long epochDay, int startMinute, int endMinute);
+}
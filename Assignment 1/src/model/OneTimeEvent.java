@@ -23,4 +23,9 @@ public final class OneTimeEvent implements Event {
     @Override public Optional<TimeRange> timeOn(LocalDate d) {
         return occursOn(d) ? Optional.of(time) : Optional.empty();
     }
+
+    @Override public void forEachOccurrence(LocalDate from, LocalDate to, OccurrenceSink sink) {
+        if (!date.isBefore(from) && !date.isAfter(to))
+            sink.occurrence(this, date.toEpochDay(), time.startMinute(), time.endMinute());
+    }
 }
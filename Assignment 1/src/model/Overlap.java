@@ -0,0 +1,8 @@
+package model;
+
+import java.time.LocalDate;
+
+// Two events whose occurrences overlap on `days` dates between first and last
+// (a single date unless both events are recurring), as reported by EventStore.conflictReport
+public record Overlap(Event a, Event b, LocalDate first, LocalDate last, int days) {
+}
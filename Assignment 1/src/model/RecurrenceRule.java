@@ -0,0 +1,204 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A recurrence rule compiled to integers, so membership and "next
+ * occurrence" need no LocalDate or EnumSet work:
+ * - dayMask: weekdays, bit 0 = Monday ... bit 6 = Sunday
+ * - intervalWeeks + anchorWeek: only weeks whose index (Monday-based, from
+ *   the epoch) differs from anchorWeek by a multiple of the interval count;
+ *   the anchor is the week of `from`
+ * - nth: 0 for every matching week, 1..5 for the nth such weekday of the
+ *   month, LAST for the last one
+ * - fromDay..toDay and sorted exception epoch days
+ *
+ * Text form (the DAYS field of the events file): MTWRFAS letters, then
+ * optionally "/N" (every N weeks, N up to MAX_INTERVAL_WEEKS) or "#n" / "#L" (nth / last of the month),
+ * e.g. "MW", "TR/2", "F#L".
+ */
+public final class RecurrenceRule {
+    public static final int LAST = -1;
+    public static final long NONE = Long.MAX_VALUE; // no further occurrence
+    public static final int MAX_INTERVAL_WEEKS = 127; // snapshots store the interval in one byte
+
+    private final int dayMask;
+    private final int intervalWeeks;
+    private final long anchorWeek;
+    private final int nth;
+    private final long fromDay, toDay;
+    private final long[] exceptions;
+
+    private RecurrenceRule(int dayMask, int intervalWeeks, int nth, long fromDay, long toDay, long[] exceptions) {
+        if ((dayMask & ~0x7F) != 0) throw new IllegalArgumentException("Invalid weekday mask.");
+        if (intervalWeeks < 1 || intervalWeeks > MAX_INTERVAL_WEEKS)
+            throw new IllegalArgumentException("Week interval must be 1-" + MAX_INTERVAL_WEEKS + ".");
+        if (nth != LAST && (nth < 0 || nth > 5)) throw new IllegalArgumentException("Week of month must be 1-5 or last.");
+        if (nth != 0 && intervalWeeks != 1)
+            throw new IllegalArgumentException("A monthly rule cannot also repeat every N weeks.");
+        this.dayMask = dayMask;
+        this.intervalWeeks = intervalWeeks;
+        this.anchorWeek = week(fromDay);
+        this.nth = nth;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.exceptions = exceptions;
+    }
+
+    public static RecurrenceRule weekly(int dayMask, LocalDate from, LocalDate to) {
+        return everyWeeks(dayMask, 1, from, to);
+    }
+
+    public static RecurrenceRule everyWeeks(int dayMask, int intervalWeeks, LocalDate from, LocalDate to) {
+        return new RecurrenceRule(dayMask, intervalWeeks, 0, from.toEpochDay(), to.toEpochDay(), new long[0]);
+    }
+
+    // the nth (1-5, or LAST) of each weekday in dayMask, every month
+    public static RecurrenceRule monthly(int dayMask, int nth, LocalDate from, LocalDate to) {
+        if (nth == 0) throw new IllegalArgumentException("Week of month must be 1-5 or last.");
+        return new RecurrenceRule(dayMask, 1, nth, from.toEpochDay(), to.toEpochDay(), new long[0]);
+    }
+
+    // Parses a DAYS token ("MW", "TR/2", "F#2", "F#L")
+    public static RecurrenceRule parse(String token, LocalDate from, LocalDate to) {
+        int cut = 0, mask = 0;
+        for (; cut < token.length(); cut++) {
+            int bit = "MTWRFAS".indexOf(token.charAt(cut));
+            if (bit < 0) break;
+            mask |= 1 << bit;
+        }
+        String rest = token.substring(cut);
+        try {
+            if (rest.isEmpty()) return weekly(mask, from, to);
+            if (rest.startsWith("/")) return everyWeeks(mask, Integer.parseInt(rest.substring(1)), from, to);
+            if (rest.equals("#L")) return monthly(mask, LAST, from, to);
+            if (rest.startsWith("#")) return monthly(mask, Integer.parseInt(rest.substring(1)), from, to);
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid days '" + token + "'");
+    }
+
+    public RecurrenceRule withExceptions(Collection<LocalDate> dates) {
+        long[] all = Arrays.copyOf(exceptions, exceptions.length + dates.size());
+        int n = exceptions.length;
+        for (LocalDate d : dates) all[n++] = d.toEpochDay();
+        Arrays.sort(all);
+        int w = 0;
+        for (int i = 0; i < all.length; i++) if (i == 0 || all[i] != all[w - 1]) all[w++] = all[i];
+        return new RecurrenceRule(dayMask, intervalWeeks, nth, fromDay, toDay, Arrays.copyOf(all, w));
+    }
+
+    public int dayMask() { return dayMask; }
+    public int intervalWeeks() { return intervalWeeks; }
+    public int nth() { return nth; }
+    public long fromDay() { return fromDay; }
+    public long toDay() { return toDay; }
+    public long[] exceptions() { return exceptions.clone(); }
+
+    // every listed weekday of every week, no exceptions: the classic MTWRFAS rule
+    public boolean isWeekly() { return intervalWeeks == 1 && nth == 0 && exceptions.length == 0; }
+
+    public boolean matches(long epochDay) {
+        if (epochDay < fromDay || epochDay > toDay) return false;
+        if ((dayMask & (1 << weekday(epochDay))) == 0) return false;
+        if (intervalWeeks > 1 && Math.floorMod(week(epochDay) - anchorWeek, intervalWeeks) != 0) return false;
+        if (nth != 0 && !nthOfMonth(epochDay)) return false;
+        return exceptions.length == 0 || Arrays.binarySearch(exceptions, epochDay) < 0;
+    }
+
+    // First occurrence on or after epochDay, or NONE
+    public long nextOnOrAfter(long epochDay) {
+        if (dayMask == 0) return NONE;
+        long d = Math.max(epochDay, fromDay);
+        while (d <= toDay) {
+            long c = nth == 0 ? nextInActiveWeek(d) : nextNthOfMonth(d);
+            if (c > toDay) return NONE;
+            if (exceptions.length == 0 || Arrays.binarySearch(exceptions, c) < 0) return c;
+            d = c + 1;
+        }
+        return NONE;
+    }
+
+    public String token() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            int bit = (i + 6) % 7; // Sunday first, as the files have always been written
+            if ((dayMask & (1 << bit)) != 0) sb.append("MTWRFAS".charAt(bit));
+        }
+        if (intervalWeeks > 1) sb.append('/').append(intervalWeeks);
+        if (nth == LAST) sb.append("#L");
+        else if (nth > 0) sb.append('#').append(nth);
+        return sb.toString();
+    }
+
+    // ---- arithmetic ----
+
+    // Monday = 0; epoch day 0 was a Thursday
+    public static int weekday(long epochDay) { return Math.floorMod(epochDay + 3, 7); }
+
+    // index of the Monday-based week holding epochDay; its Monday is 7 * week - 3
+    static long week(long epochDay) { return Math.floorDiv(epochDay + 3, 7); }
+
+    private long nextInActiveWeek(long d) {
+        long w = week(d);
+        long off = Math.floorMod(w - anchorWeek, intervalWeeks);
+        if (off == 0) {
+            int later = dayMask >>> weekday(d); // this week's weekdays from d on
+            if (later != 0) return d + Integer.numberOfTrailingZeros(later);
+            off = intervalWeeks;
+        } else {
+            off = intervalWeeks - off;
+        }
+        return 7 * (w + off) - 3 + Integer.numberOfTrailingZeros(dayMask);
+    }
+
+    private boolean nthOfMonth(long epochDay) {
+        long ymd = civil(epochDay);
+        int dom = (int) (ymd & 0x1F);
+        if (nth == LAST) return dom + 7 > monthLength(ymd);
+        return (dom - 1) / 7 + 1 == nth;
+    }
+
+    private long nextNthOfMonth(long d) {
+        while (true) {
+            long ymd = civil(d);
+            int dom = (int) (ymd & 0x1F), len = monthLength(ymd);
+            long monthStart = d - dom + 1;
+            int firstDow = weekday(monthStart);
+            long best = NONE;
+            for (int bit = 0; bit < 7; bit++) {
+                if ((dayMask & (1 << bit)) == 0) continue;
+                int first = 1 + Math.floorMod(bit - firstDow, 7); // day-of-month of the first such weekday
+                int day = nth == LAST ? first + (len - first) / 7 * 7 : first + 7 * (nth - 1);
+                if (day <= len && day >= dom) best = Math.min(best, monthStart + day - 1);
+            }
+            if (best != NONE) return best;
+            d = monthStart + len; // first day of next month
+            if (d > toDay) return NONE;
+        }
+    }
+
+    // year << 9 | month << 5 | day, from an epoch day (days-from-civil inverted)
+    private static long civil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long day = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    private static int monthLength(long ymd) {
+        long year = ymd >> 9;
+        int month = (int) ((ymd >> 5) & 0xF);
+        if (month == 2) return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+}
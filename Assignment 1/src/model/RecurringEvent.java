@@ -2,36 +2,63 @@ package model;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 
 public final class RecurringEvent implements Event {
     private final String name;
-    private final EnumSet<DayOfWeek> days; // e.g., {MONDAY, WEDNESDAY}
     private final TimeRange time;
+    private final RecurrenceRule rule; // compiled weekdays, period, month position, exceptions
     private final LocalDate from;
     private final LocalDate to;
+    private final Set<DayOfWeek> days; // e.g., {MONDAY, WEDNESDAY}; read-only view of the rule's mask
 
     public RecurringEvent(String name, EnumSet<DayOfWeek> days, TimeRange time,
                           LocalDate from, LocalDate to) {
+        this(name, time, RecurrenceRule.weekly(mask(days), from, to));
+    }
+
+    public RecurringEvent(String name, TimeRange time, RecurrenceRule rule) {
         this.name = name;
-        this.days = days.clone();
         this.time = time;
-        this.from = from;
-        this.to = to;
+        this.rule = rule;
+        this.from = LocalDate.ofEpochDay(rule.fromDay());
+        this.to = LocalDate.ofEpochDay(rule.toDay());
+        EnumSet<DayOfWeek> set = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if ((rule.dayMask() & (1 << (d.getValue() - 1))) != 0) set.add(d);
+        }
+        this.days = Collections.unmodifiableSet(set);
     }
 
     @Override public String name() { return name; }
-    public EnumSet<DayOfWeek> days() { return days.clone(); }
+    public Set<DayOfWeek> days() { return days; }
     public TimeRange time() { return time; }
     public LocalDate from() { return from; }
     public LocalDate to() { return to; }
+    public RecurrenceRule rule() { return rule; }
+    public int dayMask() { return rule.dayMask(); } // bit 0 = Monday ... bit 6 = Sunday
 
-    @Override public boolean occursOn(LocalDate d) {
-        return !d.isBefore(from) && !d.isAfter(to) && days.contains(d.getDayOfWeek());
-    }
+    @Override public boolean occursOn(LocalDate d) { return rule.matches(d.toEpochDay()); }
 
     @Override public Optional<TimeRange> timeOn(LocalDate d) {
         return occursOn(d) ? Optional.of(time) : Optional.empty();
     }
+
+    @Override public void forEachOccurrence(LocalDate rangeFrom, LocalDate rangeTo, OccurrenceSink sink) {
+        long hi = rangeTo.toEpochDay();
+        int s = time.startMinute(), e = time.endMinute();
+        // jump straight from one occurrence to the next
+        for (long d = rule.nextOnOrAfter(rangeFrom.toEpochDay()); d <= hi; d = rule.nextOnOrAfter(d + 1)) {
+            sink.occurrence(this, d, s, e);
+        }
+    }
+
+    private static int mask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek d : days) mask |= 1 << (d.getValue() - 1);
+        return mask;
+    }
 }
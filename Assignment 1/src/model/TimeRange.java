@@ -7,4 +7,14 @@ public record TimeRange(LocalTime start, LocalTime end) {
         // overlap if start < other.end AND other.start < end
         return start.isBefore(other.end()) && other.start().isBefore(end);
     }
+
+    // minute-of-day views used by the interval indexes
+    public int startMinute() { return start.getHour() * 60 + start.getMinute(); }
+    public int endMinute() { return end.getHour() * 60 + end.getMinute(); }
+
+    // the inverse: a range from two minutes of the day (0-1439)
+    public static TimeRange ofMinutes(int startMinute, int endMinute) {
+        return new TimeRange(LocalTime.of(startMinute / 60, startMinute % 60),
+                LocalTime.of(endMinute / 60, endMinute % 60));
+    }
 }
@@ -0,0 +1,171 @@
+package service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Latency histograms and counters for store, parser and printer operations.
+ *
+ * Off unless the JVM runs with -Dcalendar.metrics=true. The switch is a
+ * static final, so when it is off the JIT folds every call site's check
+ * away and start() never reads the clock.
+ *
+ * When on:
+ * - each Op gets a count, a total, a max and a log2 histogram of latency
+ *   (bucket b holds durations in [2^(b-1), 2^b) ns), all contention-free
+ *   adders so concurrent stores can record too;
+ * - counters track events indexed, occurrences scanned, bytes parsed and
+ *   day-view cache hits and misses (see DayViewCache);
+ * - everything is readable over JMX as calendar:type=Metrics (see
+ *   CalendarMetricsMBean), and each operation is also emitted as a
+ *   calendar.Operation JFR event when a recording enables it.
+ *
+ * Call sites do: long t0 = CalendarMetrics.start(); ...;
+ * CalendarMetrics.record(Op.X, t0, items);
+ */
+public final class CalendarMetrics implements CalendarMetricsMBean {
+    public static final boolean ENABLED = Boolean.getBoolean("calendar.metrics");
+
+    public enum Op {
+        DAY_QUERY, MONTH_QUERY, CONFLICT_CHECK, ADD, DELETE, IMPORT, LOAD, SAVE, RENDER_MONTH, RENDER_DAY, SEARCH
+    }
+
+    private static final int BUCKETS = 64;
+    private static final Op[] OPS = Op.values();
+    private static final LongAdder[] COUNT = adders(OPS.length);
+    private static final LongAdder[] TOTAL_NANOS = adders(OPS.length);
+    private static final LongAccumulator[] MAX_NANOS = new LongAccumulator[OPS.length];
+    private static final AtomicLongArray HISTOGRAM = new AtomicLongArray(OPS.length * BUCKETS);
+    private static final LongAdder EVENTS_INDEXED = new LongAdder();
+    private static final LongAdder OCCURRENCES_SCANNED = new LongAdder();
+    private static final LongAdder BYTES_PARSED = new LongAdder();
+    private static final LongAdder DAY_CACHE_HITS = new LongAdder();
+    private static final LongAdder DAY_CACHE_MISSES = new LongAdder();
+
+    static {
+        for (int i = 0; i < OPS.length; i++) MAX_NANOS[i] = new LongAccumulator(Math::max, 0);
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(new CalendarMetrics(), new ObjectName("calendar:type=Metrics"));
+            } catch (JMException e) {
+                System.err.println("Calendar metrics not registered with JMX: " + e.getMessage());
+            }
+        }
+    }
+
+    private CalendarMetrics() { }
+
+    public static long start() { return ENABLED ? System.nanoTime() : 0; }
+
+    // items: occurrences scanned for queries, events touched for mutations, bytes for load/save
+    public static void record(Op op, long start, long items) {
+        if (!ENABLED) return;
+        long nanos = System.nanoTime() - start;
+        int i = op.ordinal();
+        COUNT[i].increment();
+        TOTAL_NANOS[i].add(nanos);
+        MAX_NANOS[i].accumulate(nanos);
+        HISTOGRAM.incrementAndGet(i * BUCKETS + (64 - Long.numberOfLeadingZeros(Math.max(nanos, 0))) % BUCKETS);
+        if (op == Op.DAY_QUERY || op == Op.MONTH_QUERY) OCCURRENCES_SCANNED.add(items);
+
+        CalendarOperationEvent jfr = new CalendarOperationEvent();
+        if (jfr.isEnabled()) {
+            jfr.operation = op.name();
+            jfr.items = items;
+            jfr.elapsed = nanos;
+            jfr.commit();
+        }
+    }
+
+    public static void eventsIndexed(long n) { if (ENABLED) EVENTS_INDEXED.add(n); }
+    public static void bytesParsed(long n) { if (ENABLED) BYTES_PARSED.add(n); }
+    public static void dayCacheHit() { if (ENABLED) DAY_CACHE_HITS.increment(); }
+    public static void dayCacheMiss() { if (ENABLED) DAY_CACHE_MISSES.increment(); }
+
+    // ---- MBean view ----
+
+    @Override public boolean isEnabled() { return ENABLED; }
+    @Override public long getEventsIndexed() { return EVENTS_INDEXED.sum(); }
+    @Override public long getOccurrencesScanned() { return OCCURRENCES_SCANNED.sum(); }
+    @Override public long getBytesParsed() { return BYTES_PARSED.sum(); }
+    @Override public long getDayCacheHits() { return DAY_CACHE_HITS.sum(); }
+    @Override public long getDayCacheMisses() { return DAY_CACHE_MISSES.sum(); }
+
+    @Override public double getDayCacheHitRatio() {
+        long hits = DAY_CACHE_HITS.sum(), reads = hits + DAY_CACHE_MISSES.sum();
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    @Override public long count(String op) { return COUNT[op(op)].sum(); }
+
+    @Override public double meanMicros(String op) {
+        int i = op(op);
+        long n = COUNT[i].sum();
+        return n == 0 ? 0 : TOTAL_NANOS[i].sum() / 1e3 / n;
+    }
+
+    @Override public double maxMicros(String op) { return MAX_NANOS[op(op)].get() / 1e3; }
+
+    // upper bound of the histogram bucket holding the p-th fraction of samples
+    @Override public double percentileMicros(String op, double p) {
+        int i = op(op);
+        long n = 0;
+        for (int b = 0; b < BUCKETS; b++) n += HISTOGRAM.get(i * BUCKETS + b);
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(p * n), seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += HISTOGRAM.get(i * BUCKETS + b);
+            if (seen >= rank) return Math.min(1L << b, MAX_NANOS[i].get()) / 1e3;
+        }
+        return MAX_NANOS[i].get() / 1e3;
+    }
+
+    @Override public String[] getOperations() {
+        List<String> out = new ArrayList<>();
+        for (Op op : OPS) {
+            if (COUNT[op.ordinal()].sum() == 0) continue;
+            String name = op.name();
+            out.add(String.format(Locale.ROOT, "%s count=%d mean=%.1fus p50<=%.1fus p99<=%.1fus max=%.1fus",
+                    name, count(name), meanMicros(name), percentileMicros(name, 0.50),
+                    percentileMicros(name, 0.99), maxMicros(name)));
+        }
+        return out.toArray(new String[0]);
+    }
+
+    @Override public void reset() {
+        for (int i = 0; i < OPS.length; i++) {
+            COUNT[i].reset();
+            TOTAL_NANOS[i].reset();
+            MAX_NANOS[i].reset();
+        }
+        for (int i = 0; i < HISTOGRAM.length(); i++) HISTOGRAM.set(i, 0);
+        EVENTS_INDEXED.reset();
+        OCCURRENCES_SCANNED.reset();
+        DAY_CACHE_HITS.reset();
+        DAY_CACHE_MISSES.reset();
+        BYTES_PARSED.reset();
+    }
+
+    private static int op(String name) {
+        try {
+            return Op.valueOf(name.trim().toUpperCase(Locale.ROOT)).ordinal();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown operation: " + name);
+        }
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] out = new LongAdder[n];
+        for (int i = 0; i < n; i++) out[i] = new LongAdder();
+        return out;
+    }
+}
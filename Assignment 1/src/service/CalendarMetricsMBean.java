@@ -0,0 +1,23 @@
+package service;
+
+// JMX view of CalendarMetrics, registered as calendar:type=Metrics.
+// Operation names are CalendarMetrics.Op constants, e.g. "DAY_QUERY".
+public interface CalendarMetricsMBean {
+    boolean isEnabled();
+    long getEventsIndexed();
+    long getOccurrencesScanned();
+    long getBytesParsed();
+    long getDayCacheHits();
+    long getDayCacheMisses();
+    double getDayCacheHitRatio();
+
+    // one summary line per operation seen so far
+    String[] getOperations();
+
+    long count(String op);
+    double meanMicros(String op);
+    double maxMicros(String op);
+    double percentileMicros(String op, double p);
+
+    void reset();
+}
@@ -0,0 +1,25 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+// JFR event for one instrumented operation; emitted by CalendarMetrics.record
+@Name("calendar.Operation")
+@Label("Calendar Operation")
+@Category("Calendar")
+@Description("A timed EventStore, EventParser or CalendarPrinter operation")
+final class CalendarOperationEvent extends jdk.jfr.Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Items")
+    @Description("Occurrences scanned, events touched or bytes processed")
+    long items;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
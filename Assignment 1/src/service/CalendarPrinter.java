@@ -3,43 +3,102 @@ package service;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Predicate;
 
+import model.OneTimeEvent;
+import model.RecurringEvent;
+
+// Formats month and day views into a StringBuilder; the print methods
+// write each view to System.out in a single call.
 public final class CalendarPrinter {
+    private static final DateTimeFormatter DAY_HEADER = DateTimeFormatter.ofPattern("E, MMM d, uuuu");
+    private static final DateTimeFormatter LIST_DATE = DateTimeFormatter.ofPattern("M/d/uuuu");
+    private static final String NL = System.lineSeparator();
 
     public static void printMonth(YearMonth ym, LocalDate today,
                                   Predicate<LocalDate> hasEvent) {
-        System.out.printf("%s %d%n", ym.getMonth(), ym.getYear());
-        System.out.println("Su Mo Tu We Th Fr Sa");
+        BitSet occupied = new BitSet(32);
+        for (int d = 1; d <= ym.lengthOfMonth(); d++) {
+            if (hasEvent.test(ym.atDay(d))) occupied.set(d);
+        }
+        printMonth(ym, today, occupied);
+    }
+
+    // occupied has bit d set when day-of-month d has an event (see EventStore.occupiedDays)
+    public static void printMonth(YearMonth ym, LocalDate today, BitSet occupied) {
+        System.out.print(appendMonth(new StringBuilder(256), ym, today, occupied));
+    }
+
+    public static void printDay(LocalDate d, List<String> lines) {
+        System.out.print(appendDay(new StringBuilder(128), d, lines));
+    }
+
+    // [d] marks today, {d} a day with events; each cell is padded to 3 columns
+    public static StringBuilder appendMonth(StringBuilder sb, YearMonth ym, LocalDate today, BitSet occupied) {
+        long t0 = CalendarMetrics.start();
+        int begin = sb.length();
+        sb.append(ym.getMonth()).append(' ').append(ym.getYear()).append(NL);
+        sb.append("Su Mo Tu We Th Fr Sa").append(NL);
 
         LocalDate first = ym.atDay(1);
         int offset = first.getDayOfWeek().getValue() % 7; // Sunday=0
-        for (int i = 0; i < offset; i++) System.out.print("   ");
+        for (int i = 0; i < offset; i++) sb.append("   ");
 
+        int todayOfMonth = YearMonth.from(today).equals(ym) ? today.getDayOfMonth() : 0;
+        int dow = first.getDayOfWeek().getValue(); // Monday=1 .. Sunday=7
         for (int d = 1; d <= ym.lengthOfMonth(); d++) {
-            LocalDate curr = ym.atDay(d);
-            String cell = String.format("%2d", d);
-
-            boolean isToday = curr.equals(today);
-            boolean has = hasEvent.test(curr);
+            int mark = sb.length();
+            if (d == todayOfMonth) sb.append('[').append(d).append(']');
+            else if (occupied.get(d)) sb.append('{').append(d).append('}');
+            else sb.append(d < 10 ? " " : "").append(d);
+            while (sb.length() - mark < 3) sb.append(' ');
 
-            if (isToday) cell = "[" + cell.trim() + "]";
-            else if (has) cell = "{" + cell.trim() + "}";
-
-            System.out.printf("%-3s", cell);
-            if (curr.getDayOfWeek() == DayOfWeek.SATURDAY) System.out.println();
+            if (dow == DayOfWeek.SATURDAY.getValue()) sb.append(NL);
+            dow = dow % 7 + 1;
         }
-        System.out.println();
+        sb.append(NL);
+        CalendarMetrics.record(CalendarMetrics.Op.RENDER_MONTH, t0, sb.length() - begin);
+        return sb;
     }
 
-    public static void printDay(LocalDate d, List<String> lines) {
-        var fmt = java.time.format.DateTimeFormatter.ofPattern("E, MMM d, uuuu");
-        System.out.println(d.format(fmt));
+    public static StringBuilder appendDay(StringBuilder sb, LocalDate d, List<String> lines) {
+        long t0 = CalendarMetrics.start();
+        int begin = sb.length();
+        sb.append(d.format(DAY_HEADER)).append(NL);
         if (lines.isEmpty()) {
-            System.out.println("(No events)");
+            sb.append("(No events)").append(NL);
         } else {
-            for (String s : lines) System.out.println(s);
+            for (String s : lines) sb.append(s).append(NL);
+        }
+        CalendarMetrics.record(CalendarMetrics.Op.RENDER_DAY, t0, sb.length() - begin);
+        return sb;
+    }
+
+    // The [E]vent list: one-time events grouped by year, then recurring events.
+    // Both lists come sorted (see EventStore.oneTimeEventsSorted / recurringEventsSorted).
+    public static StringBuilder appendEventList(StringBuilder sb, List<OneTimeEvent> oneTimes,
+                                                List<RecurringEvent> recurring) {
+        sb.append("ONE TIME EVENTS").append(NL);
+        int year = Integer.MIN_VALUE;
+        for (OneTimeEvent o : oneTimes) {
+            if (o.date().getYear() != year) {
+                year = o.date().getYear();
+                sb.append('\n').append(year).append(NL);
+            }
+            sb.append("  ").append(o.date().getDayOfWeek()).append(' ').append(o.date().format(LIST_DATE))
+              .append(' ').append(o.time().start()).append(" - ").append(o.time().end())
+              .append(' ').append(o.name()).append(NL);
+        }
+        sb.append('\n').append("RECURRING EVENTS").append(NL);
+        for (RecurringEvent r : recurring) {
+            sb.append(r.name()).append(' ').append(r.rule().token())
+              .append(' ').append(r.time().start()).append(' ').append(r.time().end())
+              .append(' ').append(r.from().format(LIST_DATE)).append(' ').append(r.to().format(LIST_DATE))
+              .append(NL);
         }
+        return sb;
     }
 }
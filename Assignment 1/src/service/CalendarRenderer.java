@@ -0,0 +1,89 @@
+package service;
+
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+
+/**
+ * Buffered, cached views over an EventStore.
+ *
+ * - Views are built in one reusable StringBuilder and written with a single
+ *   print, instead of one printf per cell or line.
+ * - Month text is cached per YearMonth (together with the "today" it was
+ *   drawn for), so paging back and forth with P/N re-prints cached strings.
+ * - The renderer listens to the store and drops only the months a change
+ *   touched: the event's month for a one-time event, every month in
+ *   from..to for a recurring one.
+ * - Day views read their occurrence lines through a DayViewCache, so
+ *   paging days with P/N or going back to a date does not re-query and
+ *   re-format that day.
+ */
+public final class CalendarRenderer implements StoreListener {
+    private record CachedMonth(LocalDate today, String text) { }
+
+    private final EventStore store;
+    private final PrintStream out;
+    private final DayViewCache days;
+    private final Map<YearMonth, CachedMonth> months = new HashMap<>();
+    private final StringBuilder buffer = new StringBuilder(1024);
+
+    public CalendarRenderer(EventStore store) { this(store, System.out); }
+
+    public CalendarRenderer(EventStore store, PrintStream out) {
+        this.store = store;
+        this.out = out;
+        this.days = new DayViewCache(store);
+        store.addListener(this);
+    }
+
+    public void printMonth(YearMonth ym, LocalDate today) { out.print(month(ym, today)); }
+
+    public void printDay(LocalDate d) {
+        buffer.setLength(0);
+        out.print(CalendarPrinter.appendDay(buffer, d, days.occurrencesOn(d)));
+    }
+
+    // count consecutive months starting at first, written as one block
+    public void printMonths(YearMonth first, int count, LocalDate today) {
+        buffer.setLength(0);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) buffer.append(System.lineSeparator());
+            buffer.append(month(first.plusMonths(i), today));
+        }
+        out.print(buffer);
+    }
+
+    public String month(YearMonth ym, LocalDate today) {
+        // today only changes the text of its own month
+        LocalDate key = YearMonth.from(today).equals(ym) ? today : null;
+        CachedMonth cached = months.get(ym);
+        if (cached != null && Objects.equals(cached.today(), key)) return cached.text();
+        buffer.setLength(0);
+        String text = CalendarPrinter.appendMonth(buffer, ym, today, store.occupiedDays(ym)).toString();
+        months.put(ym, new CachedMonth(key, text));
+        return text;
+    }
+
+    public int cachedMonths() { return months.size(); }
+    public DayViewCache dayCache() { return days; }
+
+    @Override public void added(Event e) { invalidate(e); }
+    @Override public void removed(Event e) { invalidate(e); }
+
+    private void invalidate(Event e) {
+        if (months.isEmpty()) return;
+        if (e instanceof OneTimeEvent o) {
+            months.remove(YearMonth.from(o.date()));
+        } else if (e instanceof RecurringEvent r) {
+            YearMonth from = YearMonth.from(r.from()), to = YearMonth.from(r.to());
+            months.keySet().removeIf(ym -> !ym.isBefore(from) && !ym.isAfter(to));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * The calendar operations every store backend answers the same way.
+ *
+ * - EventStore: the full store (journal, listeners, search, progressive
+ *   loading, importAll, free slots); single-threaded.
+ * - PackedEventStore: the same data in parallel primitive arrays, for
+ *   large calendars; single-threaded.
+ * - ConcurrentEventStore: lock-free reads and per-day atomic writes, for
+ *   one store shared by many threads.
+ * Code that only needs these operations (e.g. CalendarServer) takes a
+ * CalendarStore, so the backend is picked where the store is created. A
+ * single-threaded backend shared between threads goes through
+ * synchronizedStore.
+ */
+public interface CalendarStore {
+    void addAll(Collection<Event> es);
+    List<Event> all();
+
+    // "name : start - end" lines for the events on d, by start time
+    List<String> formattedOccurrencesOn(LocalDate d);
+    // bit d is set for each day-of-month d of ym that has an event
+    BitSet occupiedDays(YearMonth ym);
+    boolean hasConflict(LocalDate d, TimeRange newRange);
+    List<Event> conflictsWith(LocalDate d, TimeRange newRange);
+
+    // throws IllegalArgumentException if evt overlaps an existing event
+    void addOneTime(OneTimeEvent evt);
+    boolean deleteSelected(LocalDate date, String name);
+    int deleteAllOn(LocalDate date);
+    int deleteRecurringByName(String name);
+
+    List<OneTimeEvent> oneTimeEventsOn(LocalDate d);
+    List<OneTimeEvent> oneTimeEventsSorted();
+    List<RecurringEvent> recurringEventsSorted();
+
+    // One lock around every call, like Collections.synchronizedList
+    static CalendarStore synchronizedStore(CalendarStore store) {
+        return new SynchronizedCalendarStore(store);
+    }
+}
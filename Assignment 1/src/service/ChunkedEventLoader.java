@@ -0,0 +1,291 @@
+package service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * Streaming loader for the two-line events file format
+ * (name line, then a data line).
+ *
+ * - A first pass reads the file through a buffered channel and cuts it into
+ *   chunks of roughly CHUNK_BYTES, always at the start of a record (an even
+ *   line number), remembering the line number each chunk starts at.
+ * - Each chunk is memory-mapped and parsed on its own fork-join task with a
+ *   byte-level tokenizer (no regex, no per-line String except the name).
+ * - Chunk results are concatenated in file order, so the event order is the
+ *   same as a sequential load.
+ *
+ * Malformed records are collected as ParseErrors with their line number.
+ */
+final class ChunkedEventLoader {
+    static final int CHUNK_BYTES = 8 << 20;
+    private static final int SCAN_BYTES = 1 << 20;
+
+    private record Chunk(long offset, long length, long firstLine) { }
+
+    private ChunkedEventLoader() { }
+
+    static LoadResult load(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Chunk> chunks = plan(ch, CHUNK_BYTES);
+            if (chunks.size() == 1) return parse(ch, chunks.get(0));
+            return ForkJoinPool.commonPool().invoke(new ParseTask(ch, chunks, 0, chunks.size()));
+        }
+    }
+
+    // Cut the file at record boundaries, roughly every chunkBytes bytes
+    static List<Chunk> plan(FileChannel ch, int chunkBytes) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        long size = ch.size();
+        ByteBuffer buf = ByteBuffer.allocateDirect(SCAN_BYTES);
+        long chunkStart = 0, chunkLine = 0, line = 0, pos = 0;
+        while (pos < size) {
+            buf.clear();
+            int n = ch.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) != '\n') continue;
+                line++;
+                long next = pos + i + 1;
+                if ((line & 1) == 0 && next - chunkStart >= chunkBytes) {
+                    chunks.add(new Chunk(chunkStart, next - chunkStart, chunkLine));
+                    chunkStart = next;
+                    chunkLine = line;
+                }
+            }
+            pos += n;
+        }
+        if (chunkStart < size || chunks.isEmpty()) chunks.add(new Chunk(chunkStart, size - chunkStart, chunkLine));
+        return chunks;
+    }
+
+    private static final class ParseTask extends RecursiveTask<LoadResult> {
+        private static final long serialVersionUID = 1L;
+        private final FileChannel ch;
+        private final List<Chunk> chunks;
+        private final int lo, hi;
+
+        ParseTask(FileChannel ch, List<Chunk> chunks, int lo, int hi) {
+            this.ch = ch; this.chunks = chunks; this.lo = lo; this.hi = hi;
+        }
+
+        @Override protected LoadResult compute() {
+            if (hi - lo == 1) {
+                try {
+                    return parse(ch, chunks.get(lo));
+                } catch (IOException e) {
+                    Chunk c = chunks.get(lo);
+                    return new LoadResult(List.of(),
+                        List.of(new ParseError(c.firstLine() + 1, "Error reading file: " + e.getMessage())));
+                }
+            }
+            int mid = (lo + hi) >>> 1;
+            ParseTask right = new ParseTask(ch, chunks, mid, hi);
+            right.fork();
+            LoadResult left = new ParseTask(ch, chunks, lo, mid).compute();
+            LoadResult r = right.join();
+            List<Event> events = new ArrayList<>(left.events().size() + r.events().size());
+            events.addAll(left.events());
+            events.addAll(r.events());
+            List<ParseError> errors = new ArrayList<>(left.errors());
+            errors.addAll(r.errors());
+            return new LoadResult(events, errors);
+        }
+    }
+
+    private static LoadResult parse(FileChannel ch, Chunk c) throws IOException {
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, c.offset(), c.length());
+        return parse(buf, c.firstLine());
+    }
+
+    // Parse name/data line pairs from buf, whose first line has 0-based index firstLine
+    static LoadResult parse(ByteBuffer buf, long firstLine) {
+        List<Event> events = new ArrayList<>();
+        List<ParseError> errors = new ArrayList<>();
+        Tokenizer tok = new Tokenizer(buf);
+        int limit = buf.limit();
+        int pos = 0;
+        long line = firstLine;
+        while (pos < limit) {
+            int nameStart = pos, nameEnd = lineEnd(buf, pos, limit);
+            pos = next(nameEnd, limit);
+            if (pos >= limit) {
+                // name line without a data line
+                String name = decode(buf, nameStart, nameEnd);
+                if (!name.isEmpty() && !name.startsWith("#"))
+                    errors.add(new ParseError(line + 1, "Missing data line for event: " + name));
+                break;
+            }
+            int dataStart = pos, dataEnd = lineEnd(buf, pos, limit);
+            pos = next(dataEnd, limit);
+
+            String name = decode(buf, nameStart, nameEnd);
+            long dataLine = line + 2;
+            line += 2;
+            if (name.isEmpty() || name.startsWith("#") || tok.reset(dataStart, dataEnd) == 0) continue;
+
+            try {
+                Event e = tok.event(name);
+                if (e != null) events.add(e);
+                else errors.add(new ParseError(dataLine, "Too few fields for event: " + name));
+            } catch (DateTimeException | IllegalArgumentException ex) {
+                errors.add(new ParseError(dataLine, "Error parsing event: " + name + " - " + ex.getMessage()));
+            }
+        }
+        return new LoadResult(events, errors);
+    }
+
+    // index of the '\n' ending the line at pos, or limit; a trailing '\r' is trimmed later
+    private static int lineEnd(ByteBuffer buf, int pos, int limit) {
+        int i = pos;
+        while (i < limit && buf.get(i) != '\n') i++;
+        return i;
+    }
+
+    private static int next(int lineEnd, int limit) {
+        return lineEnd < limit ? lineEnd + 1 : limit;
+    }
+
+    private static String decode(ByteBuffer buf, int from, int to) {
+        while (from < to && isBlank(buf.get(from))) from++;
+        while (to > from && isBlank(buf.get(to - 1))) to--;
+        byte[] bytes = new byte[to - from];
+        buf.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Splits one data line into whitespace-separated tokens and turns them into an event:
+     *   M/d/uuuu H:mm H:mm                     one-time
+     *   DAYS H:mm H:mm M/d/uuuu M/d/uuuu [EXCEPT]
+     *                                          recurring: DAYS from MTWRFAS, optionally
+     *                                          followed by /N or #n / #L (see RecurrenceRule);
+     *                                          EXCEPT is a comma-separated list of skipped dates
+     */
+    private static final class Tokenizer {
+        private static final int MAX_TOKENS = 6;
+        private final ByteBuffer buf;
+        private final int[] starts = new int[MAX_TOKENS];
+        private final int[] ends = new int[MAX_TOKENS];
+        private int count;
+
+        Tokenizer(ByteBuffer buf) { this.buf = buf; }
+
+        int reset(int from, int to) {
+            count = 0;
+            int i = from;
+            while (count < MAX_TOKENS) {
+                while (i < to && isBlank(buf.get(i))) i++;
+                if (i >= to) break;
+                starts[count] = i;
+                while (i < to && !isBlank(buf.get(i))) i++;
+                ends[count++] = i;
+            }
+            return count;
+        }
+
+        Event event(String name) {
+            if (count < 3) return null;
+            if (isDayPattern(0)) {
+                if (count < 5) return null;
+                RecurrenceRule rule = RecurrenceRule.parse(text(starts[0], ends[0]), date(3), date(4));
+                if (count > 5) rule = rule.withExceptions(dates(5));
+                return new RecurringEvent(name, new TimeRange(time(1), time(2)), rule);
+            }
+            return new OneTimeEvent(name, date(0), new TimeRange(time(1), time(2)));
+        }
+
+        // MTWRFAS letters, possibly followed by a /N or # suffix
+        private boolean isDayPattern(int t) {
+            int i = starts[t];
+            while (i < ends[t] && "MTWRFAS".indexOf(buf.get(i)) >= 0) i++;
+            return i > starts[t] && (i == ends[t] || buf.get(i) == '/' || buf.get(i) == '#');
+        }
+
+        // M/d/uuuu
+        private LocalDate date(int t) { return date(starts[t], ends[t], t); }
+
+        private LocalDate date(int from, int to, int t) {
+            int[] pos = {from};
+            int month = number(pos, to, 1, 2);
+            expect(pos, to, '/', t);
+            int day = number(pos, to, 1, 2);
+            expect(pos, to, '/', t);
+            int year = number(pos, to, 4, 9);
+            if (pos[0] != to) throw bad("date", t);
+            return LocalDate.of(year, month, day);
+        }
+
+        // M/d/uuuu,M/d/uuuu,...
+        private List<LocalDate> dates(int t) {
+            List<LocalDate> out = new ArrayList<>();
+            for (int from = starts[t], i = from; i <= ends[t]; i++) {
+                if (i == ends[t] || buf.get(i) == ',') {
+                    out.add(date(from, i, t));
+                    from = i + 1;
+                }
+            }
+            return out;
+        }
+
+        // H:mm
+        private LocalTime time(int t) {
+            int[] pos = {starts[t]};
+            int hour = number(pos, ends[t], 1, 2);
+            expect(pos, ends[t], ':', t);
+            int minute = number(pos, ends[t], 2, 2);
+            if (pos[0] != ends[t]) throw bad("time", t);
+            return LocalTime.of(hour, minute);
+        }
+
+        private int number(int[] pos, int end, int minDigits, int maxDigits) {
+            int v = 0, n = 0, i = pos[0];
+            while (i < end && n < maxDigits) {
+                byte b = buf.get(i);
+                if (b < '0' || b > '9') break;
+                v = v * 10 + (b - '0');
+                i++; n++;
+            }
+            if (n < minDigits) throw new IllegalArgumentException("Text '" + text(pos[0], end) + "' could not be parsed");
+            pos[0] = i;
+            return v;
+        }
+
+        private void expect(int[] pos, int end, char c, int t) {
+            if (pos[0] >= end || buf.get(pos[0]) != c) throw bad(c == '/' ? "date" : "time", t);
+            pos[0]++;
+        }
+
+        private IllegalArgumentException bad(String what, int t) {
+            return new IllegalArgumentException("Invalid " + what + " '" + text(starts[t], ends[t]) + "'");
+        }
+
+        private String text(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            buf.get(from, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * Thread-safe CalendarStore backend for one store shared by many threads.
+ *
+ * Every date bucket is an immutable array, sorted by start, that writers
+ * replace copy-on-write; recurring events live in one immutable snapshot
+ * (the full list plus a per-weekday split) behind a volatile field. Readers
+ * never lock: they grab the current arrays and work on them.
+ *
+ * Writers:
+ * - one-time adds and deletes run their check-and-replace inside
+ *   ConcurrentHashMap.compute for that day, so a conflict-checked
+ *   addOneTime is atomic against concurrent inserts on the same day
+ *   while different days proceed in parallel;
+ * - they hold the read side of a read/write lock, so recurring changes
+ *   (write side) cannot slip in between the conflict check and the insert.
+ */
+public final class ConcurrentEventStore implements CalendarStore {
+    private static final OneTimeEvent[] NO_EVENTS = new OneTimeEvent[0];
+    private static final Comparator<OneTimeEvent> BY_START = Comparator.comparing(o -> o.time().start());
+
+    // immutable view of all recurring events
+    private record Recurring(RecurringEvent[] all, RecurringEvent[][] byWeekday) {
+        static final Recurring EMPTY = of(new RecurringEvent[0]);
+
+        static Recurring of(RecurringEvent[] all) {
+            List<List<RecurringEvent>> split = new ArrayList<>();
+            for (int i = 0; i < 7; i++) split.add(new ArrayList<>());
+            for (RecurringEvent r : all) {
+                for (DayOfWeek d : r.days()) split.get(d.getValue() - 1).add(r);
+            }
+            RecurringEvent[][] byWeekday = new RecurringEvent[7][];
+            for (int i = 0; i < 7; i++) byWeekday[i] = split.get(i).toArray(new RecurringEvent[0]);
+            return new Recurring(all, byWeekday);
+        }
+
+        RecurringEvent[] on(LocalDate d) { return byWeekday[d.getDayOfWeek().getValue() - 1]; }
+    }
+
+    private final ConcurrentHashMap<Long, OneTimeEvent[]> oneTimeByDay = new ConcurrentHashMap<>();
+    private volatile Recurring recurring = Recurring.EMPTY;
+    private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+
+    @Override public void addAll(Collection<Event> es) {
+        Map<Long, List<OneTimeEvent>> days = new HashMap<>();
+        List<RecurringEvent> rec = new ArrayList<>();
+        for (Event e : es) {
+            if (e instanceof OneTimeEvent o) days.computeIfAbsent(o.date().toEpochDay(), k -> new ArrayList<>()).add(o);
+            else if (e instanceof RecurringEvent r) rec.add(r);
+        }
+        structure.writeLock().lock();
+        try {
+            days.forEach((day, added) -> oneTimeByDay.compute(day, (k, old) -> {
+                OneTimeEvent[] current = old == null ? NO_EVENTS : old;
+                OneTimeEvent[] merged = Arrays.copyOf(current, current.length + added.size());
+                for (int i = 0; i < added.size(); i++) merged[current.length + i] = added.get(i);
+                Arrays.sort(merged, BY_START);
+                return merged;
+            }));
+            if (!rec.isEmpty()) {
+                RecurringEvent[] all = Arrays.copyOf(recurring.all(), recurring.all().length + rec.size());
+                for (int i = 0; i < rec.size(); i++) all[recurring.all().length + i] = rec.get(i);
+                recurring = Recurring.of(all);
+            }
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    // A consistent-enough snapshot: recurring events, then one-time events day by day
+    @Override public List<Event> all() {
+        List<Event> out = new ArrayList<>(Arrays.asList(recurring.all()));
+        for (OneTimeEvent[] day : oneTimeByDay.values()) out.addAll(Arrays.asList(day));
+        return out;
+    }
+
+    @Override public List<String> formattedOccurrencesOn(LocalDate d) {
+        OneTimeEvent[] day = oneTimeByDay.getOrDefault(d.toEpochDay(), NO_EVENTS);
+        List<Event> list = new ArrayList<>(Arrays.asList(day));
+        List<TimeRange> times = new ArrayList<>();
+        for (OneTimeEvent o : day) times.add(o.time());
+        for (RecurringEvent r : recurring.on(d)) {
+            if (r.occursOn(d)) {
+                // insert after every entry starting at or before r (one-time first on ties)
+                int at = 0;
+                while (at < times.size() && !times.get(at).start().isAfter(r.time().start())) at++;
+                list.add(at, r);
+                times.add(at, r.time());
+            }
+        }
+        List<String> out = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            out.add(String.format("%s : %s - %s", list.get(i).name(), times.get(i).start(), times.get(i).end()));
+        }
+        return out;
+    }
+
+    // Same contract as EventStore.occupiedDays: bit d set for day-of-month d
+    @Override public BitSet occupiedDays(YearMonth ym) {
+        BitSet mask = new BitSet(32);
+        long first = ym.atDay(1).toEpochDay();
+        for (int d = 1; d <= ym.lengthOfMonth(); d++) {
+            if (oneTimeByDay.containsKey(first + d - 1)) mask.set(d);
+        }
+        for (RecurringEvent r : recurring.all()) {
+            r.forEachOccurrence(ym.atDay(1), ym.atEndOfMonth(), (e, day, s, end) -> mask.set((int) (day - first) + 1));
+        }
+        return mask;
+    }
+
+    @Override public boolean hasConflict(LocalDate d, TimeRange newRange) {
+        return !conflictsWith(d, newRange).isEmpty();
+    }
+
+    @Override public List<Event> conflictsWith(LocalDate d, TimeRange newRange) {
+        return conflicts(oneTimeByDay.getOrDefault(d.toEpochDay(), NO_EVENTS), recurring, d, newRange);
+    }
+
+    private static List<Event> conflicts(OneTimeEvent[] day, Recurring rec, LocalDate d, TimeRange newRange) {
+        List<Event> out = new ArrayList<>();
+        for (OneTimeEvent o : day) {
+            if (!o.time().start().isBefore(newRange.end())) break; // sorted by start
+            if (o.time().conflicts(newRange)) out.add(o);
+        }
+        for (RecurringEvent r : rec.on(d)) {
+            if (r.occursOn(d) && r.time().conflicts(newRange)) out.add(r);
+        }
+        return out;
+    }
+
+    @Override public void addOneTime(OneTimeEvent evt) {
+        structure.readLock().lock();
+        try {
+            Recurring rec = recurring;
+            oneTimeByDay.compute(evt.date().toEpochDay(), (k, day) -> {
+                OneTimeEvent[] current = day == null ? NO_EVENTS : day;
+                if (!conflicts(current, rec, evt.date(), evt.time()).isEmpty())
+                    throw new IllegalArgumentException("Conflict with existing event.");
+                int at = 0;
+                while (at < current.length && !current[at].time().start().isAfter(evt.time().start())) at++;
+                OneTimeEvent[] next = new OneTimeEvent[current.length + 1];
+                System.arraycopy(current, 0, next, 0, at);
+                next[at] = evt;
+                System.arraycopy(current, at, next, at + 1, current.length - at);
+                return next;
+            });
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    @Override public boolean deleteSelected(LocalDate date, String name) {
+        int[] removed = new int[1];
+        structure.readLock().lock();
+        try {
+            oneTimeByDay.computeIfPresent(date.toEpochDay(), (k, day) -> {
+                OneTimeEvent[] kept = Arrays.stream(day)
+                        .filter(o -> !o.name().equalsIgnoreCase(name))
+                        .toArray(OneTimeEvent[]::new);
+                removed[0] = day.length - kept.length;
+                return kept.length == 0 ? null : kept;
+            });
+        } finally {
+            structure.readLock().unlock();
+        }
+        return removed[0] > 0;
+    }
+
+    @Override public int deleteAllOn(LocalDate date) {
+        structure.readLock().lock();
+        try {
+            OneTimeEvent[] day = oneTimeByDay.remove(date.toEpochDay());
+            return day == null ? 0 : day.length;
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    @Override public int deleteRecurringByName(String name) {
+        structure.writeLock().lock();
+        try {
+            RecurringEvent[] all = recurring.all();
+            RecurringEvent[] kept = Arrays.stream(all)
+                    .filter(r -> !r.name().equalsIgnoreCase(name))
+                    .toArray(RecurringEvent[]::new);
+            if (kept.length != all.length) recurring = Recurring.of(kept);
+            return all.length - kept.length;
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    @Override public List<OneTimeEvent> oneTimeEventsOn(LocalDate d) {
+        return List.of(oneTimeByDay.getOrDefault(d.toEpochDay(), NO_EVENTS));
+    }
+
+    @Override public List<OneTimeEvent> oneTimeEventsSorted() {
+        List<OneTimeEvent> out = new ArrayList<>();
+        for (OneTimeEvent[] day : oneTimeByDay.values()) out.addAll(Arrays.asList(day));
+        out.sort(Comparator.comparing(OneTimeEvent::date).thenComparing(o -> o.time().start()));
+        return out;
+    }
+
+    @Override public List<RecurringEvent> recurringEventsSorted() {
+        List<RecurringEvent> out = new ArrayList<>(Arrays.asList(recurring.all()));
+        out.sort(Comparator.comparing(RecurringEvent::from));
+        return out;
+    }
+}
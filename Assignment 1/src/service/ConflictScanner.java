@@ -0,0 +1,169 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.Overlap;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+
+/**
+ * Finds every overlapping pair of events in a date range, lazily.
+ *
+ * - Recurring vs recurring pairs come first and are worked out without
+ *   expanding every day: recurring events sorted by start minute are swept
+ *   for time overlaps; for two plain weekly rules the shared weekdays (mask
+ *   AND) and the intersected date range give the number of clashing dates
+ *   and the first and last of them, and richer rules (every N weeks, nth of
+ *   month, exceptions) step through one rule's occurrences with
+ *   RecurrenceRule.nextOnOrAfter and test the other with matches.
+ * - Every other pair involves a one-time event, so only days holding
+ *   one-time events are expanded: the day's occurrences are sorted by start
+ *   and swept with an active list, one day at a time.
+ * Only one day's pairs are buffered, so memory stays bounded however long
+ * the range.
+ */
+final class ConflictScanner implements Iterator<Overlap> {
+    private final EventStore store;
+    private final long firstDay, lastDay;
+    private final ArrayDeque<Overlap> ready = new ArrayDeque<>();
+
+    // recurring sweep state: pairs (i, j) of byStart with j > i
+    private final RecurringEvent[] byStart;
+    private int ri, rj;
+
+    private long nextDay;
+
+    // scratch for the day being swept
+    private Event[] items = new Event[16];
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private long[] order = new long[16];
+    private int[] active = new int[16];
+    private int size;
+
+    ConflictScanner(EventStore store, long firstDay, long lastDay, List<RecurringEvent> recurring) {
+        this.store = store;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.nextDay = firstDay;
+        this.byStart = recurring.toArray(new RecurringEvent[0]);
+        Arrays.sort(byStart, (x, y) -> Integer.compare(x.time().startMinute(), y.time().startMinute()));
+        this.rj = 1;
+    }
+
+    @Override public boolean hasNext() {
+        while (ready.isEmpty() && ri < byStart.length) nextRecurringPair();
+        while (ready.isEmpty() && nextDay <= lastDay) sweep(nextDay++);
+        return !ready.isEmpty();
+    }
+
+    @Override public Overlap next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return ready.poll();
+    }
+
+    // Advances (ri, rj) by one candidate; byStart[rj] overlaps byStart[ri] in
+    // time while it starts before byStart[ri] ends
+    private void nextRecurringPair() {
+        if (rj >= byStart.length || byStart[rj].time().startMinute() >= byStart[ri].time().endMinute()) {
+            ri++;
+            rj = ri + 1;
+            return;
+        }
+        RecurringEvent a = byStart[ri], b = byStart[rj++];
+        int mask = a.dayMask() & b.dayMask();
+        long lo = Math.max(firstDay, Math.max(a.from().toEpochDay(), b.from().toEpochDay()));
+        long hi = Math.min(lastDay, Math.min(a.to().toEpochDay(), b.to().toEpochDay()));
+        if (mask == 0 || lo > hi || empty(a) || empty(b)) return;
+
+        if (!a.rule().isWeekly() || !b.rule().isWeekly()) {
+            stepPair(a, b, lo, hi);
+            return;
+        }
+        long first = lo + daysUntil(mask, RecurrenceRule.weekday(lo));
+        long last = hi - daysSince(mask, RecurrenceRule.weekday(hi));
+        if (first > last) return;
+        // whole weeks hit each shared weekday once; the partial week is counted directly
+        long span = hi - lo + 1;
+        long count = span / 7 * Integer.bitCount(mask);
+        for (long d = lo + span / 7 * 7; d <= hi; d++) {
+            if ((mask & (1 << RecurrenceRule.weekday(d))) != 0) count++;
+        }
+        ready.add(new Overlap(a, b, LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last), (int) count));
+    }
+
+    private void stepPair(RecurringEvent a, RecurringEvent b, long lo, long hi) {
+        long first = RecurrenceRule.NONE, last = 0;
+        int count = 0;
+        for (long d = a.rule().nextOnOrAfter(lo); d <= hi; d = a.rule().nextOnOrAfter(d + 1)) {
+            if (!b.rule().matches(d)) continue;
+            if (count++ == 0) first = d;
+            last = d;
+        }
+        if (count > 0) ready.add(new Overlap(a, b, LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last), count));
+    }
+
+    private void sweep(long epochDay) {
+        if (!store.hasOneTimeOn(epochDay)) return;
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        size = 0;
+        store.forEachOccurrenceOn(date, (e, day, s, end) -> {
+            if (size == items.length) {
+                int cap = size * 2;
+                items = Arrays.copyOf(items, cap);
+                starts = Arrays.copyOf(starts, cap);
+                ends = Arrays.copyOf(ends, cap);
+                order = Arrays.copyOf(order, cap);
+                active = Arrays.copyOf(active, cap);
+            }
+            items[size] = e;
+            starts[size] = s;
+            ends[size] = end;
+            order[size] = ((long) s << 32) | size;
+            size++;
+        });
+        Arrays.sort(order, 0, size);
+
+        int live = 0;
+        for (int k = 0; k < size; k++) {
+            int i = (int) order[k];
+            int s = starts[i];
+            int kept = 0;
+            for (int a = 0; a < live; a++) {
+                int j = active[a];
+                if (ends[j] <= s) continue; // finished before i starts
+                active[kept++] = j;
+                // recurring pairs were reported arithmetically
+                if (s < ends[i] && (items[i] instanceof OneTimeEvent || items[j] instanceof OneTimeEvent)) {
+                    ready.add(new Overlap(items[j], items[i], date, date, 1));
+                }
+            }
+            active[kept++] = i;
+            live = kept;
+        }
+    }
+
+    // a zero-length event overlaps nothing, as in the sweep
+    private static boolean empty(RecurringEvent e) { return e.time().startMinute() >= e.time().endMinute(); }
+
+    // days from weekday dow forward to the next weekday in mask, 0 if dow is in it
+    private static int daysUntil(int mask, int dow) {
+        int rotated = ((mask >>> dow) | (mask << (7 - dow))) & 0x7F;
+        return Integer.numberOfTrailingZeros(rotated);
+    }
+
+    // days from weekday dow back to the previous weekday in mask, 0 if dow is in it
+    private static int daysSince(int mask, int dow) {
+        for (int k = 0; k < 7; k++) {
+            if ((mask & (1 << Math.floorMod(dow - k, 7))) != 0) return k;
+        }
+        return 7;
+    }
+}
@@ -0,0 +1,136 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+
+/**
+ * LRU cache of EventStore.formattedOccurrencesOn, one sorted list per date.
+ *
+ * - Bounded by entry count and by an estimate of the bytes the cached
+ *   strings hold; the least recently read day goes first when either
+ *   limit is passed. A day bigger than the whole byte budget is not cached.
+ * - The cache listens to the store and drops exactly the dates a change
+ *   touches: the date of a one-time event, and for a recurring event only
+ *   the cached dates its rule matches (its weekdays, interval, nth and
+ *   exceptions, within from..to). Everything else stays cached.
+ * - Hits, misses and evictions are counted; with -Dcalendar.metrics=true
+ *   hits and misses also show on the metrics MBean.
+ * Cached lists are unmodifiable and shared between callers.
+ */
+public final class DayViewCache implements StoreListener {
+    public static final int DEFAULT_MAX_DAYS = 512;
+    public static final long DEFAULT_MAX_BYTES = 1L << 20;
+
+    // rough heap cost: map node + boxed key + entry + list, then per string
+    private static final int ENTRY_BYTES = 112;
+    private static final int LINE_BYTES = 56;
+
+    private record Entry(List<String> lines, long bytes) { }
+
+    private final EventStore store;
+    private final int maxDays;
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Entry> days = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long hits, misses, evictions;
+
+    public DayViewCache(EventStore store) { this(store, DEFAULT_MAX_DAYS, DEFAULT_MAX_BYTES); }
+
+    public DayViewCache(EventStore store, int maxDays, long maxBytes) {
+        if (maxDays < 1) throw new IllegalArgumentException("maxDays must be at least 1");
+        if (maxBytes < 1) throw new IllegalArgumentException("maxBytes must be at least 1");
+        this.store = store;
+        this.maxDays = maxDays;
+        this.maxBytes = maxBytes;
+        store.addListener(this);
+    }
+
+    public List<String> occurrencesOn(LocalDate d) {
+        Long key = d.toEpochDay();
+        Entry cached = days.get(key);
+        if (cached != null) {
+            hits++;
+            CalendarMetrics.dayCacheHit();
+            return cached.lines();
+        }
+        misses++;
+        CalendarMetrics.dayCacheMiss();
+        // the store may merge progressively loaded events (and call back) before returning
+        List<String> lines = List.copyOf(store.formattedOccurrencesOn(d));
+        long size = estimate(lines);
+        if (size <= maxBytes) {
+            days.put(key, new Entry(lines, size));
+            bytes += size;
+            evict();
+        }
+        return lines;
+    }
+
+    public int size() { return days.size(); }
+    public long bytes() { return bytes; }
+    public long hits() { return hits; }
+    public long misses() { return misses; }
+    public long evictions() { return evictions; }
+
+    public double hitRatio() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) hits / reads;
+    }
+
+    public double missRatio() {
+        long reads = hits + misses;
+        return reads == 0 ? 0 : (double) misses / reads;
+    }
+
+    public void clear() {
+        days.clear();
+        bytes = 0;
+    }
+
+    @Override public void added(Event e) { invalidate(e); }
+    @Override public void removed(Event e) { invalidate(e); }
+
+    private void invalidate(Event e) {
+        if (days.isEmpty()) return;
+        if (e instanceof OneTimeEvent o) {
+            drop(days.remove(o.date().toEpochDay()));
+        } else if (e instanceof RecurringEvent r) {
+            // the cache is bounded, so walking its keys is cheaper than walking a long range
+            RecurrenceRule rule = r.rule();
+            for (Iterator<Map.Entry<Long, Entry>> it = days.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Entry> day = it.next();
+                if (rule.matches(day.getKey())) {
+                    drop(day.getValue());
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private void drop(Entry removed) {
+        if (removed != null) bytes -= removed.bytes();
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = days.values().iterator();
+        while (days.size() > maxDays || bytes > maxBytes) {
+            drop(eldest.next());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long estimate(List<String> lines) {
+        long size = ENTRY_BYTES;
+        for (String s : lines) size += LINE_BYTES + 2L * s.length();
+        return size;
+    }
+}
@@ -0,0 +1,464 @@
+package service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.TimeRange;
+
+/**
+ * Append-only log of EventStore mutations, layered over an EventSnapshot.
+ *
+ * - Every addOneTime / deleteSelected / deleteAllOn / deleteRecurringByName is
+ *   appended as one small record: int length, int CRC32, then the payload.
+ * - Appends are group-committed: a record is queued and the caller returns;
+ *   a committer thread writes whatever has queued up within FLUSH_MILLIS of
+ *   the first pending record and fsyncs once for the whole batch. A crash
+ *   can lose at most that window. checkpoint(), close() and a batch import
+ *   (logAdds) wait until everything queued before them is durable.
+ * - After COMPACT_AFTER records the journal is rotated to journal.old and a
+ *   background task folds the store into a new snapshot, then deletes the
+ *   old journal.
+ *
+ * Recovery loads the snapshot and replays journal.old (a compaction that did
+ * not finish) and the journal, stopping at the first torn record. Replayed
+ * operations are idempotent against a snapshot that already contains them
+ * (re-adding conflicts with itself and is skipped; deletes repeat harmlessly).
+ */
+public final class EventJournal implements Closeable {
+    static final int COMPACT_AFTER = 10_000;
+    static final long FLUSH_MILLIS = 10;
+    private static final int FLUSH_BYTES = 1 << 16; // write early once this much is queued
+
+    private static final byte ADD_ONE_TIME = 1;
+    private static final byte DELETE_SELECTED = 2;
+    private static final byte DELETE_ALL_ON = 3;
+    private static final byte DELETE_RECURRING = 4;
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Path rotated;
+    private final EventStore store;
+    private final Object lock = new Object();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Thread committer;
+
+    // guarded by lock
+    private FileChannel channel;
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appended;
+    private long durable;
+    private IOException failure;
+    private boolean closed;
+    private int waiting; // callers blocked in sync(): flush without waiting out the interval
+
+    // only touched by the thread mutating the store
+    private int sinceCompaction;
+    private Future<?> compaction;
+
+    private EventJournal(Path snapshot, EventStore store) throws IOException {
+        this.snapshot = snapshot;
+        this.journal = sibling(snapshot, ".journal");
+        this.rotated = sibling(snapshot, ".journal.old");
+        this.store = store;
+        this.channel = openJournal();
+        this.committer = new Thread(this::commitLoop, "journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Rebuilds store from an existing snapshot plus its journal(s), writes a
+     * fresh snapshot and attaches a new journal to the store.
+     */
+    public static EventJournal resume(Path snapshot, EventStore store) throws IOException {
+        store.addAll(EventSnapshot.read(snapshot));
+        replay(sibling(snapshot, ".journal.old"), store);
+        replay(sibling(snapshot, ".journal"), store);
+        return start(snapshot, store);
+    }
+
+    // True if changes were journaled after the snapshot was written (i.e. the
+    // last session did not end with a checkpoint), so resume has work to replay
+    public static boolean hasPendingChanges(Path snapshot) {
+        try {
+            for (String suffix : new String[] {".journal.old", ".journal"}) {
+                Path p = sibling(snapshot, suffix);
+                if (Files.exists(p) && Files.size(p) > 0) return true;
+            }
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Starts a new session from whatever store already holds (e.g. events.txt),
+     * replacing any previous snapshot and journal at this path.
+     */
+    public static EventJournal start(Path snapshot, EventStore store) throws IOException {
+        // the old journals may hold changes the store has replayed but no snapshot has yet:
+        // only drop them once the new snapshot is durably in place
+        writeSnapshot(snapshot, new ArrayList<>(store.all()));
+        Files.deleteIfExists(sibling(snapshot, ".journal.old"));
+        Files.deleteIfExists(sibling(snapshot, ".journal"));
+        EventJournal j = new EventJournal(snapshot, store);
+        store.attachJournal(j);
+        return j;
+    }
+
+    /**
+     * Attaches a journal to a store that holds, or is still progressively
+     * loading, exactly the snapshot already at this path, without writing a
+     * new one. Any journal left there must be empty (see hasPendingChanges).
+     */
+    public static EventJournal attach(Path snapshot, EventStore store) throws IOException {
+        if (hasPendingChanges(snapshot)) throw new IOException("Journal has changes to replay: " + snapshot);
+        Files.deleteIfExists(sibling(snapshot, ".journal.old"));
+        EventJournal j = new EventJournal(snapshot, store);
+        store.attachJournal(j);
+        return j;
+    }
+
+    /**
+     * Like attach, for a store loading from another snapshot file: that file is
+     * copied (durably) to this path first, replacing any previous session.
+     */
+    public static EventJournal attachCopy(Path source, Path snapshot, EventStore store) throws IOException {
+        Path tmp = sibling(snapshot, ".tmp");
+        Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ch.force(true);
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(sibling(snapshot, ".journal.old"));
+        Files.deleteIfExists(sibling(snapshot, ".journal"));
+        return attach(snapshot, store);
+    }
+
+    void logAdd(OneTimeEvent e) { append(addRecord(e)); }
+
+    // One record per event, written and fsynced as a single commit (for EventStore.importAll)
+    void logAdds(List<OneTimeEvent> es) {
+        if (es.isEmpty()) return;
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(es.size() * 48);
+        for (OneTimeEvent e : es) frame(frames, addRecord(e));
+        commit(frames, es.size());
+        try {
+            sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal write failed", e);
+        }
+    }
+
+    private static RecordWriter addRecord(OneTimeEvent e) {
+        return out -> {
+            out.writeByte(ADD_ONE_TIME);
+            writeString(out, e.name());
+            out.writeInt((int) e.date().toEpochDay());
+            out.writeShort(e.time().startMinute());
+            out.writeShort(e.time().endMinute());
+        };
+    }
+
+    void logDeleteSelected(LocalDate date, String name) {
+        append(out -> {
+            out.writeByte(DELETE_SELECTED);
+            writeString(out, name);
+            out.writeInt((int) date.toEpochDay());
+        });
+    }
+
+    void logDeleteAllOn(LocalDate date) {
+        append(out -> {
+            out.writeByte(DELETE_ALL_ON);
+            out.writeInt((int) date.toEpochDay());
+        });
+    }
+
+    void logDeleteRecurring(String name) {
+        append(out -> {
+            out.writeByte(DELETE_RECURRING);
+            writeString(out, name);
+        });
+    }
+
+    private interface RecordWriter { void write(DataOutputStream out) throws IOException; }
+
+    private void append(RecordWriter body) {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream(64);
+        frame(frames, body);
+        commit(frames, 1);
+    }
+
+    // Appends one framed record (length, CRC32, payload) to out
+    private static void frame(ByteArrayOutputStream out, RecordWriter body) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            body.write(new DataOutputStream(bytes));
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        writeInt(out, payload.length);
+        writeInt(out, (int) crc.getValue());
+        out.write(payload, 0, payload.length);
+    }
+
+    // Queues count framed records for the committer and returns
+    private void commit(ByteArrayOutputStream frames, int count) {
+        byte[] bytes = frames.toByteArray();
+        synchronized (lock) {
+            if (closed) throw new IllegalStateException("Journal is closed.");
+            if (failure != null) throw new UncheckedIOException("Journal write failed", failure);
+            pending.writeBytes(bytes);
+            appended += count;
+            lock.notifyAll();
+        }
+        sinceCompaction += count;
+        if (sinceCompaction >= COMPACT_AFTER) compactInBackground();
+    }
+
+    // Group commit: once a record is pending, gathers more for up to FLUSH_MILLIS
+    // (less if FLUSH_BYTES pile up or someone is waiting in sync), then one write
+    // and one fsync for the whole batch
+    private void commitLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long upTo;
+            FileChannel ch;
+            synchronized (lock) {
+                try {
+                    while (pending.size() == 0 && !closed) lock.wait();
+                    long deadline = System.nanoTime() + FLUSH_MILLIS * 1_000_000;
+                    while (!closed && waiting == 0 && pending.size() < FLUSH_BYTES) {
+                        long left = (deadline - System.nanoTime()) / 1_000_000;
+                        if (left <= 0) break;
+                        lock.wait(left);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pending.size() == 0) return;
+                batch = pending;
+                pending = new ByteArrayOutputStream(Math.max(256, batch.size()));
+                upTo = appended;
+                ch = channel;
+            }
+            IOException error = null;
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(batch.toByteArray());
+                while (buf.hasRemaining()) ch.write(buf);
+                ch.force(false);
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (lock) {
+                if (error != null) failure = error;
+                else durable = upTo;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Durability barrier: waits until everything appended so far is on disk
+    private void sync() throws IOException {
+        synchronized (lock) {
+            waiting++;
+            lock.notifyAll();
+            try {
+                while (durable < appended && failure == null) lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for journal commit.", e);
+            } finally {
+                waiting--;
+            }
+            if (failure != null) throw failure;
+        }
+    }
+
+    /**
+     * Rotates the journal and folds a copy of the store into a new snapshot
+     * on the compactor thread. Skipped while a previous compaction runs.
+     */
+    private void compactInBackground() {
+        if (compaction != null && !compaction.isDone()) return;
+        List<Event> copy;
+        try {
+            copy = rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        compaction = compactor.submit(() -> {
+            writeSnapshot(copy);
+            return null;
+        });
+    }
+
+    // Writes a snapshot of the current store and empties the journal (used at open and close)
+    public void checkpoint() throws IOException {
+        if (compaction != null) {
+            try {
+                compaction.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // the synchronous snapshot below supersedes it
+            }
+        }
+        writeSnapshot(rotate());
+    }
+
+    // Caller must be the store's thread: copies the store and starts a new journal file
+    private List<Event> rotate() throws IOException {
+        sync();
+        List<Event> copy = new ArrayList<>(store.all());
+        synchronized (lock) {
+            channel.close();
+            if (Files.exists(rotated)) {
+                // an earlier compaction never finished: keep its records ahead of ours,
+                // durably, before the live journal goes
+                try (FileChannel old = FileChannel.open(rotated, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+                    ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(journal));
+                    while (buf.hasRemaining()) old.write(buf);
+                    old.force(false);
+                }
+                Files.delete(journal);
+            } else {
+                Files.move(journal, rotated);
+            }
+            channel = openJournal();
+        }
+        sinceCompaction = 0;
+        return copy;
+    }
+
+    private void writeSnapshot(List<Event> events) throws IOException {
+        writeSnapshot(snapshot, events);
+        Files.deleteIfExists(rotated);
+    }
+
+    // Temp file, fsync, then an atomic rename: the snapshot is either the old one or the new one
+    private static void writeSnapshot(Path snapshot, List<Event> events) throws IOException {
+        Path tmp = sibling(snapshot, ".tmp");
+        EventSnapshot.write(tmp, events);
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ch.force(true);
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            synchronized (lock) {
+                closed = true;
+                lock.notifyAll();
+            }
+            try {
+                committer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            compactor.shutdown();
+            channel.close();
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    // Applies every intact record of a journal file to the store
+    private static void replay(Path file, EventStore store) throws IOException {
+        if (!Files.exists(file)) return;
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        while (in.remaining() >= 8) {
+            int length = in.getInt();
+            int expected = in.getInt();
+            if (length < 0 || length > in.remaining()) break; // torn tail
+            ByteBuffer payload = in.slice(in.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expected) break;
+            in.position(in.position() + length);
+            apply(payload, store);
+        }
+    }
+
+    private static void apply(ByteBuffer in, EventStore store) {
+        switch (in.get()) {
+            case ADD_ONE_TIME -> {
+                String name = readString(in);
+                LocalDate date = LocalDate.ofEpochDay(in.getInt());
+                TimeRange time = TimeRange.ofMinutes(in.getShort(), in.getShort());
+                try {
+                    store.addOneTime(new OneTimeEvent(name, date, time));
+                } catch (IllegalArgumentException alreadyApplied) {
+                    // the snapshot already holds this event
+                }
+            }
+            case DELETE_SELECTED -> {
+                String name = readString(in);
+                store.deleteSelected(LocalDate.ofEpochDay(in.getInt()), name);
+            }
+            case DELETE_ALL_ON -> store.deleteAllOn(LocalDate.ofEpochDay(in.getInt()));
+            case DELETE_RECURRING -> store.deleteRecurringByName(readString(in));
+            default -> { } // unknown record type from a newer version
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int v) {
+        out.write(v >>> 24);
+        out.write(v >>> 16);
+        out.write(v >>> 8);
+        out.write(v);
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+}
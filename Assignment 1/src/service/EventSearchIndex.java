@@ -0,0 +1,348 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+import service.CalendarMetrics.Op;
+
+/**
+ * Search over event names by partial words, kept current as a StoreListener.
+ *
+ * - A name is split into case-folded tokens (runs of letters and digits),
+ *   so "CS151 Lecture" is found by "lec", "cs1" or "lecture cs151".
+ * - A sorted term dictionary maps each token to posting lists of the
+ *   events holding it. Every event gets an int id, and a posting entry is
+ *   the long (day << 32 | id), kept sorted: the date for a one-time event,
+ *   the first date for a recurring one (those get a list of their own).
+ * - A query token matches every term it is a prefix of (one TreeMap range),
+ *   and an event must match every query token. The token with the fewest
+ *   postings drives: its lists are merged from the first key of the date
+ *   range, and each candidate's name is checked for the other tokens.
+ *   A date range is thus a key range, and a query stops after `limit`
+ *   hits instead of walking every posting.
+ * - Recurring events can start before the range and still occur in it, so
+ *   their (short) lists are scanned up to the last date that could still
+ *   make the result, and merged in by first occurrence.
+ * - Adds are appended unsorted and merged into the sorted run when the
+ *   list is next queried. Removing an event only marks its id dead; a list
+ *   is rewritten once more than half of it is dead, and all ids are
+ *   renumbered once more than half of them are.
+ *
+ * Results come in date order. Like EventStore (and because queries merge
+ * pending adds), the index is not thread-safe.
+ */
+public final class EventSearchIndex implements StoreListener {
+    private static final int MIN_RENUMBER = 1024;
+
+    // (day << 32 | id) entries: keys[0, sorted) ascending, then unsorted appends
+    private static final class Posting {
+        long[] keys = new long[2];
+        int size, sorted, dead;
+
+        void add(long key) {
+            if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+            keys[size++] = key;
+        }
+
+        void prepare() {
+            if (sorted == size) return;
+            Arrays.sort(keys, sorted, size);
+            if (sorted > 0 && keys[sorted - 1] > keys[sorted]) {
+                long[] merged = new long[keys.length];
+                int i = 0, j = sorted, k = 0;
+                while (i < sorted && j < size) merged[k++] = keys[i] <= keys[j] ? keys[i++] : keys[j++];
+                while (i < sorted) merged[k++] = keys[i++];
+                while (j < size) merged[k++] = keys[j++];
+                keys = merged;
+            }
+            sorted = size;
+        }
+    }
+
+    private static final class Term {
+        final Posting oneTime = new Posting();
+        Posting recurring; // most terms have none
+    }
+
+    private final EventStore store;
+    private final NavigableMap<String, Term> terms = new TreeMap<>();
+    private final Map<Event, Integer> ids = new HashMap<>();
+    private Event[] byId = new Event[64]; // null once removed
+    private int nextId;
+
+    // Indexes what the store holds now, then follows its changes (a progressive
+    // load included: queries wait for the days they cover, as store queries do)
+    public EventSearchIndex(EventStore store) {
+        this.store = store;
+        store.addListener(this);
+        store.forEachLoaded(this::added);
+    }
+
+    public int size() { return ids.size(); }
+    public int terms() { return terms.size(); }
+
+    public List<Event> search(String query, int limit) {
+        return search(query, null, null, limit);
+    }
+
+    /**
+     * The first limit events, by date, with a name token starting with each
+     * query token. With from/to set, only events occurring in from..to
+     * count, ordered by their first date in the range.
+     */
+    public List<Event> search(String query, LocalDate from, LocalDate to, int limit) {
+        long t0 = CalendarMetrics.start();
+        List<String> tokens = tokens(query);
+        List<Event> out = new ArrayList<>();
+        if (tokens.isEmpty() || limit <= 0) return out;
+        // recurring events are loaded up front, so the range's one-time days are all that is missing
+        if (from != null && to != null) store.awaitDays(from, to);
+        else store.awaitAll();
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+
+        List<List<Term>> matched = new ArrayList<>(tokens.size());
+        for (String t : tokens) {
+            matched.add(new ArrayList<>(terms.subMap(t, true, t + Character.MAX_VALUE, false).values()));
+        }
+        int scanned = 0;
+
+        // one-time events: the date range is a key range
+        int lead = rarest(matched, false);
+        long[] days = new long[limit];
+        Event[] hits = new Event[limit];
+        int n = 0;
+        Cursor c = new Cursor(matched.get(lead), false, dayKey(fromDay));
+        for (long key; n < limit && (key = c.next()) != Long.MAX_VALUE && (key >> 32) <= toDay; ) {
+            Event e = byId[(int) key];
+            if (e == null) continue;
+            scanned++;
+            if (hasTokens(e, tokens, lead)) {
+                days[n] = key >> 32;
+                hits[n++] = e;
+            }
+        }
+
+        // recurring events that could still place within the first limit
+        long last = n == limit ? days[n - 1] : toDay;
+        List<long[]> rec = new ArrayList<>(); // {first occurrence, id}
+        lead = rarest(matched, true);
+        c = new Cursor(matched.get(lead), true, Long.MIN_VALUE);
+        for (long key; (key = c.next()) != Long.MAX_VALUE && (key >> 32) <= last; ) {
+            int id = (int) key;
+            if (!(byId[id] instanceof RecurringEvent r)) continue;
+            scanned++;
+            if (!hasTokens(r, tokens, lead)) continue;
+            long first = r.rule().nextOnOrAfter(Math.max(fromDay, r.rule().fromDay()));
+            if (first != RecurrenceRule.NONE && first <= last) rec.add(new long[] {first, id});
+        }
+        rec.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        for (int i = 0, j = 0; out.size() < limit && (i < n || j < rec.size()); ) {
+            if (j == rec.size() || (i < n && days[i] <= rec.get(j)[0])) out.add(hits[i++]);
+            else out.add(byId[(int) rec.get(j++)[1]]);
+        }
+        CalendarMetrics.record(Op.SEARCH, t0, scanned);
+        return out;
+    }
+
+    @Override public void added(Event e) {
+        if (ids.containsKey(e)) return;
+        int id = nextId++;
+        if (id == byId.length) byId = Arrays.copyOf(byId, id * 2);
+        byId[id] = e;
+        ids.put(e, id);
+        long key = dayKey(firstDay(e)) | id;
+        for (String t : tokens(e.name())) {
+            Term term = terms.computeIfAbsent(t, k -> new Term());
+            if (e instanceof RecurringEvent && term.recurring == null) term.recurring = new Posting();
+            (e instanceof RecurringEvent ? term.recurring : term.oneTime).add(key);
+        }
+    }
+
+    @Override public void removed(Event e) {
+        Integer id = ids.remove(e);
+        if (id == null) return;
+        byId[id] = null;
+        for (String t : tokens(e.name())) {
+            Term term = terms.get(t);
+            if (term == null) continue;
+            Posting p = e instanceof RecurringEvent ? term.recurring : term.oneTime;
+            if (p != null && ++p.dead * 2 > p.size) compact(p);
+            if (term.oneTime.size == 0 && (term.recurring == null || term.recurring.size == 0)) terms.remove(t);
+        }
+        if (nextId >= MIN_RENUMBER && ids.size() * 2 < nextId) renumber();
+    }
+
+    private static long firstDay(Event e) {
+        if (e instanceof OneTimeEvent o) return o.date().toEpochDay();
+        if (e instanceof RecurringEvent r) return r.rule().fromDay();
+        return Long.MIN_VALUE;
+    }
+
+    // Day in the high half of a key (clamped: only far-off dates lose their order)
+    private static long dayKey(long day) {
+        return Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, day)) << 32;
+    }
+
+    // Index of the query token with the fewest postings of one kind
+    private static int rarest(List<List<Term>> matched, boolean recurring) {
+        int best = 0;
+        long bestSize = Long.MAX_VALUE;
+        for (int i = 0; i < matched.size(); i++) {
+            long size = 0;
+            for (Term t : matched.get(i)) {
+                Posting p = recurring ? t.recurring : t.oneTime;
+                if (p != null) size += p.size;
+            }
+            if (size < bestSize) { best = i; bestSize = size; }
+        }
+        return best;
+    }
+
+    // Every query token but the leading one (matched by the cursor) starts a word of the name
+    private static boolean hasTokens(Event e, List<String> tokens, int lead) {
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i != lead && !startsWord(e.name(), tokens.get(i))) return false;
+        }
+        return true;
+    }
+
+    // Allocation-free for ASCII names; anything else goes through the same folding as the index
+    private static boolean startsWord(String name, String token) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                for (String w : tokens(name)) {
+                    if (w.startsWith(token)) return true;
+                }
+                return false;
+            }
+        }
+        for (int i = 0; i <= name.length() - token.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(name.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+            if (wordStart && name.regionMatches(true, i, token, 0, token.length())) return true;
+        }
+        return false;
+    }
+
+    private void compact(Posting p) {
+        p.prepare();
+        int n = 0;
+        for (int i = 0; i < p.size; i++) {
+            if (byId[(int) p.keys[i]] != null) p.keys[n++] = p.keys[i];
+        }
+        p.size = p.sorted = n;
+        p.dead = 0;
+        if (n * 4 < p.keys.length) p.keys = Arrays.copyOf(p.keys, Math.max(2, n * 2));
+    }
+
+    // Re-index the live events with dense ids
+    private void renumber() {
+        Event[] live = new Event[ids.size()];
+        int n = 0;
+        for (int i = 0; i < nextId; i++) {
+            if (byId[i] != null) live[n++] = byId[i];
+        }
+        terms.clear();
+        ids.clear();
+        byId = new Event[Math.max(64, n * 2)];
+        nextId = 0;
+        for (Event e : live) added(e);
+    }
+
+    // Case-folded runs of letters and digits, each once, in order of appearance
+    static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>(4);
+        int i = 0, n = text.length();
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i > start) {
+                String t = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!out.contains(t)) out.add(t);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Ascending keys from the postings of several terms (the terms one
+     * query token prefixes), merged with a min-heap of list positions.
+     */
+    private static final class Cursor {
+        private final long[][] lists;
+        private final int[] sizes, pos;
+        private final int[] heap; // list indexes, smallest current key on top
+        private int heapSize;
+        private long last = Long.MIN_VALUE;
+
+        Cursor(List<Term> terms, boolean recurring, long fromKey) {
+            int k = terms.size();
+            lists = new long[k][];
+            sizes = new int[k];
+            pos = new int[k];
+            heap = new int[k];
+            for (Term t : terms) {
+                Posting p = recurring ? t.recurring : t.oneTime;
+                if (p == null || p.size == 0) continue;
+                p.prepare();
+                int start = lowerBound(p.keys, p.size, fromKey);
+                if (start == p.size) continue;
+                lists[heapSize] = p.keys;
+                sizes[heapSize] = p.size;
+                pos[heapSize] = start;
+                heap[heapSize] = heapSize;
+                heapSize++;
+            }
+            for (int j = heapSize / 2 - 1; j >= 0; j--) siftDown(j);
+        }
+
+        // Next key in order, or Long.MAX_VALUE when every list is done. A name
+        // with two words under the same prefix is in two lists: return it once.
+        long next() {
+            while (heapSize > 0) {
+                int top = heap[0];
+                long key = lists[top][pos[top]];
+                if (++pos[top] == sizes[top]) heap[0] = heap[--heapSize];
+                siftDown(0);
+                if (key != last) return last = key;
+            }
+            return Long.MAX_VALUE;
+        }
+
+        private static int lowerBound(long[] a, int size, long key) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private long key(int h) { return lists[heap[h]][pos[heap[h]]]; }
+
+        private void siftDown(int h) {
+            while (true) {
+                int l = 2 * h + 1, r = l + 1, min = h;
+                if (l < heapSize && key(l) < key(min)) min = l;
+                if (r < heapSize && key(r) < key(min)) min = r;
+                if (min == h) return;
+                int t = heap[h]; heap[h] = heap[min]; heap[min] = t;
+                h = min;
+            }
+        }
+    }
+}
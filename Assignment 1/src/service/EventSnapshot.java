@@ -0,0 +1,209 @@
+package service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * Compact binary snapshot of a calendar, readable back into the same events.
+ *
+ * Layout (big-endian):
+ *   int    MAGIC ("CALS"), short VERSION
+ *   int    name count, then per name: int byte length + UTF-8 bytes
+ *   int    recurring count, then per event:
+ *          int nameId, byte weekday mask (bit 0 = Monday), short start minute,
+ *          short end minute, int from epoch day, int to epoch day,
+ *          and since version 2: byte week interval, byte nth of month
+ *          (0 = every week, -1 = last), int exception count + epoch days
+ *   int    one-time count, then per event (sorted by day, then start):
+ *          int nameId, int epoch day, short start minute, short end minute
+ *
+ * Names are deduplicated through the string table, so repeated titles
+ * (lectures, meetings) are stored once.
+ */
+public final class EventSnapshot {
+    static final int MAGIC = 0x43414C53;
+    static final short VERSION = 2; // version 1 files (weekly rules only) are still read
+    static final int ONE_TIME_RECORD_BYTES = 12; // int nameId, int day, short start, short end
+
+    private EventSnapshot() { }
+
+    // True if the file starts with the snapshot magic number
+    public static boolean isSnapshot(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && ch.read(head) > 0) { }
+            return !head.hasRemaining() && head.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static void write(Path path, Collection<Event> events) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<RecurringEvent> recurring = new ArrayList<>();
+        List<OneTimeEvent> oneTimes = new ArrayList<>();
+        for (Event e : events) {
+            if (e instanceof OneTimeEvent o) oneTimes.add(o);
+            else if (e instanceof RecurringEvent r) recurring.add(r);
+            else continue;
+            ids.computeIfAbsent(e.name(), n -> { names.add(n); return names.size() - 1; });
+        }
+        oneTimes.sort(Comparator.comparing(OneTimeEvent::date)
+                .thenComparing(o -> o.time().start()));
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+
+            out.writeInt(names.size());
+            for (String n : names) {
+                byte[] bytes = n.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(recurring.size());
+            for (RecurringEvent r : recurring) {
+                out.writeInt(ids.get(r.name()));
+                out.writeByte(r.dayMask());
+                out.writeShort(r.time().startMinute());
+                out.writeShort(r.time().endMinute());
+                out.writeInt((int) r.from().toEpochDay());
+                out.writeInt((int) r.to().toEpochDay());
+                RecurrenceRule rule = r.rule();
+                out.writeByte(rule.intervalWeeks());
+                out.writeByte(rule.nth());
+                long[] skipped = rule.exceptions();
+                out.writeInt(skipped.length);
+                for (long d : skipped) out.writeInt((int) d);
+            }
+
+            out.writeInt(oneTimes.size());
+            for (OneTimeEvent o : oneTimes) {
+                out.writeInt(ids.get(o.name()));
+                out.writeInt((int) o.date().toEpochDay());
+                out.writeShort(o.time().startMinute());
+                out.writeShort(o.time().endMinute());
+            }
+        }
+    }
+
+    public static List<Event> read(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            try {
+                return read(in);
+            } catch (RuntimeException e) {
+                throw new IOException("Corrupt calendar snapshot: " + path, e);
+            }
+        }
+    }
+
+    private static List<Event> read(ByteBuffer in) throws IOException {
+        Layout layout = layout(in);
+        ArrayList<Event> events = new ArrayList<>(layout.recurring().size() + layout.oneTimeCount());
+        events.addAll(layout.recurring());
+        for (int i = 0; i < layout.oneTimeCount(); i++) events.add(oneTimeAt(in, layout, i));
+        return events;
+    }
+
+    // Everything before the one-time records, decoded; the records themselves
+    // are fixed-width and date-ordered, so they can be read by index
+    record Layout(String[] names, List<RecurringEvent> recurring, int oneTimeOffset, int oneTimeCount) { }
+
+    static Layout layout(ByteBuffer in) throws IOException {
+        if (in.remaining() < 6 || in.getInt(0) != MAGIC) throw new IOException("Not a calendar snapshot");
+        short version = in.getShort(4);
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported snapshot version " + version);
+        ByteBuffer b = in.duplicate().position(6);
+
+        String[] names = new String[b.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] bytes = new byte[b.getInt()];
+            b.get(bytes);
+            names[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int recurringCount = b.getInt();
+        List<RecurringEvent> recurring = new ArrayList<>(recurringCount);
+        for (int i = 0; i < recurringCount; i++) {
+            String name = names[b.getInt()];
+            int mask = b.get();
+            TimeRange time = TimeRange.ofMinutes(b.getShort(), b.getShort());
+            LocalDate from = LocalDate.ofEpochDay(b.getInt());
+            LocalDate to = LocalDate.ofEpochDay(b.getInt());
+            RecurrenceRule rule = RecurrenceRule.weekly(mask, from, to);
+            if (version >= 2) {
+                int interval = b.get(), nth = b.get();
+                if (interval < 1) throw new IOException("Corrupt calendar snapshot: week interval " + interval);
+                if (nth != 0) rule = RecurrenceRule.monthly(mask, nth, from, to);
+                else if (interval > 1) rule = RecurrenceRule.everyWeeks(mask, interval, from, to);
+                List<LocalDate> skipped = new ArrayList<>();
+                for (int n = b.getInt(); n > 0; n--) skipped.add(LocalDate.ofEpochDay(b.getInt()));
+                if (!skipped.isEmpty()) rule = rule.withExceptions(skipped);
+            }
+            recurring.add(new RecurringEvent(name, time, rule));
+        }
+
+        int oneTimeCount = b.getInt();
+        if ((long) oneTimeCount * ONE_TIME_RECORD_BYTES > b.remaining())
+            throw new IOException("Truncated calendar snapshot");
+        return new Layout(names, recurring, b.position(), oneTimeCount);
+    }
+
+    // Absolute reads only, so several threads can decode from one buffer
+    static int dayAt(ByteBuffer in, Layout layout, int i) {
+        return in.getInt(layout.oneTimeOffset() + i * ONE_TIME_RECORD_BYTES + 4);
+    }
+
+    static OneTimeEvent oneTimeAt(ByteBuffer in, Layout layout, int i) {
+        int at = layout.oneTimeOffset() + i * ONE_TIME_RECORD_BYTES;
+        String name = layout.names()[in.getInt(at)];
+        LocalDate date = LocalDate.ofEpochDay(in.getInt(at + 4));
+        TimeRange time = TimeRange.ofMinutes(in.getShort(at + 8), in.getShort(at + 10));
+        return new OneTimeEvent(name, date, time);
+    }
+
+    // first one-time record whose day is >= epochDay
+    static int firstOnOrAfter(ByteBuffer in, Layout layout, long epochDay) {
+        int lo = 0, hi = layout.oneTimeCount();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dayAt(in, layout, mid) < epochDay) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    static EnumSet<DayOfWeek> days(int mask) {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if ((mask & (1 << (d.getValue() - 1))) != 0) days.add(d);
+        }
+        return days;
+    }
+}
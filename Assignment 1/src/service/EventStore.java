@@ -1,17 +1,42 @@
 package service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import model.Event;
+import model.FreeSlot;
+import model.Occurrence;
+import model.OccurrenceSink;
 import model.OneTimeEvent;
+import model.Overlap;
 import model.RecurringEvent;
 import model.TimeRange;
+import service.CalendarMetrics.Op;
 
 /**
  * The EventStore class manages all Event objects in the calendar.
@@ -23,85 +48,511 @@ import model.TimeRange;
  * - Retrieve events by date or date range.
  * - Detect scheduling conflicts (event overlaps).
  * - Persist events to external storage (optional).
+ *
+ * Besides the flat event list, the store keeps an occurrence index so a
+ * day query only touches events that can occur on that day:
+ * - one-time events bucketed by epoch day
+ * - recurring events bucketed by day-of-week (their from/to bounds are
+ *   checked on lookup)
+ * Each bucket is an IntervalBucket sorted by start minute, so conflict
+ * checks are O(log n + k) per day instead of a scan of the whole store.
+ * A case-folded name index serves deletes and lookups by name.
  */
 
 
-public final class EventStore {
-    private final List<Event> events = new ArrayList<>();
+public final class EventStore implements CalendarStore {
+    private final Set<Event> events = new LinkedHashSet<>(); // insertion order, O(1) removal
+    private final Map<Long, IntervalBucket<OneTimeEvent>> oneTimeByDay = new HashMap<>();
+    private final Map<DayOfWeek, IntervalBucket<RecurringEvent>> recurringByWeekday = new EnumMap<>(DayOfWeek.class);
+    private final Set<RecurringEvent> recurring = new LinkedHashSet<>(); // each recurring event once, for range scans
+    private final NavigableMap<String, List<Event>> byName = new TreeMap<>(); // keyed by fold(name)
+    private EventJournal journal; // null unless persistence is attached
+    private final List<StoreListener> listeners = new ArrayList<>();
+    private ProgressiveLoader loading; // non-null while a snapshot is still streaming in
 
-    // Private DTO for a single-day occurrence (no separate file)
-    private static final class Occ implements Comparable<Occ> {
-        final String name;
-        final LocalDate date;
-        final boolean recurring;
-        final TimeRange time;
+    // Collects one day's occurrences into primitive arrays, then sorts and formats them
+    private static final class DayCollector implements OccurrenceSink {
+        private Event[] events = new Event[8];
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private int size;
 
-        Occ(String name, LocalDate date, boolean recurring, TimeRange time) {
-            this.name = name; this.date = date; this.recurring = recurring; this.time = time;
+        @Override public void occurrence(Event event, long epochDay, int startMinute, int endMinute) {
+            if (size == events.length) {
+                events = Arrays.copyOf(events, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            events[size] = event;
+            starts[size] = startMinute;
+            ends[size] = endMinute;
+            size++;
         }
 
-        @Override public int compareTo(Occ o) {
-            int c = date.compareTo(o.date);
-            return (c != 0) ? c : time.start().compareTo(o.time.start());
+        List<String> formatted() {
+            // stable insertion sort by start: a day holds a handful of events
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                int j = i;
+                while (j > 0 && starts[order[j - 1]] > starts[i]) { order[j] = order[j - 1]; j--; }
+                order[j] = i;
+            }
+            List<String> out = new ArrayList<>(size);
+            for (int i : order) {
+                TimeRange t = TimeRange.ofMinutes(starts[i], ends[i]);
+                out.add(String.format("%s : %s - %s", events[i].name(), t.start(), t.end()));
+            }
+            return out;
         }
     }
 
-    public void addAll(Collection<Event> es) { events.addAll(es); }
-    public List<Event> all() { return events; }
+    @Override public void addAll(Collection<Event> es) {
+        for (Event e : es) {
+            if (events.add(e)) index(e);
+        }
+    }
+    @Override public List<Event> all() {
+        awaitAll();
+        return new ArrayList<>(events);
+    }
 
-    // Build occurrences for a date
-    public List<String> formattedOccurrencesOn(LocalDate d) {
-        List<Occ> list = new ArrayList<>();
-        for (Event e : events) {
-            e.timeOn(d).ifPresent(tr -> list.add(new Occ(e.name(), d, !(e instanceof OneTimeEvent), tr)));
+    /**
+     * Bulk import with conflict checking, O(n log n) in the batch size:
+     * - recurring events are added as-is (like addAll) and go in first, so
+     *   one-time events are checked against them too;
+     * - one-time events are sorted by (day, start) and each day is validated
+     *   with one sweep over the day's existing occurrences and the batch;
+     *   when two batch events overlap the earlier-starting one wins;
+     * - accepted events are then committed together, merged into each day's
+     *   bucket in one pass.
+     */
+    public ImportReport importAll(Collection<? extends Event> batch) {
+        long t0 = CalendarMetrics.start();
+        awaitAll();
+        List<OneTimeEvent> oneTimes = new ArrayList<>();
+        int accepted = 0;
+        boolean recurringAdded = false;
+        for (Event e : batch) {
+            if (e instanceof OneTimeEvent o) oneTimes.add(o);
+            else if (events.add(e)) {
+                index(e);
+                accepted++;
+                recurringAdded = true;
+            }
+        }
+
+        OneTimeEvent[] sorted = sortByDayAndStart(oneTimes);
+        List<Rejection> rejected = new ArrayList<>();
+        OneTimeEvent[] ok = new OneTimeEvent[sorted.length];
+        int okCount = 0;
+        DayOccurrences existing = new DayOccurrences();
+        for (int i = 0, j; i < sorted.length; i = j) {
+            LocalDate d = sorted[i].date();
+            for (j = i + 1; j < sorted.length && sorted[j].date().equals(d); j++) { }
+            existing.load(oneTimeByDay.get(d.toEpochDay()), recurringByWeekday.get(d.getDayOfWeek()), d);
+
+            // sweep: p passes stored entries starting before s, tracking the one
+            // reaching furthest; accepted batch events never overlap each other,
+            // so the last one accepted reaches furthest among them
+            int p = 0, reach = Integer.MIN_VALUE, lastEnd = Integer.MIN_VALUE;
+            Event reachEvent = null;
+            OneTimeEvent last = null;
+            for (int k = i; k < j; k++) {
+                OneTimeEvent o = sorted[k];
+                int s = o.time().startMinute(), e = o.time().endMinute();
+                for (; p < existing.size && existing.starts[p] < s; p++) {
+                    if (existing.ends[p] > reach) { reach = existing.ends[p]; reachEvent = existing.items[p]; }
+                }
+                Event hit = reach > s ? reachEvent
+                          : p < existing.size && existing.starts[p] < e ? existing.items[p]
+                          : lastEnd > s ? last : null;
+                if (hit != null) {
+                    rejected.add(new Rejection(o, hit));
+                } else {
+                    ok[okCount++] = o;
+                    last = o;
+                    lastEnd = e;
+                }
+            }
+        }
+
+        // commit, one day at a time: ok is still in (day, start) order
+        int[] starts = new int[okCount], ends = new int[okCount];
+        List<OneTimeEvent> committed = journal != null ? new ArrayList<>(okCount) : null;
+        for (int i = 0, j; i < okCount; i = j) {
+            long day = ok[i].date().toEpochDay();
+            int n = 0;
+            for (j = i; j < okCount && ok[j].date().toEpochDay() == day; j++) {
+                if (!events.add(ok[j])) continue; // already stored (a zero-length duplicate)
+                ok[i + n] = ok[j];
+                starts[n] = ok[j].time().startMinute();
+                ends[n] = ok[j].time().endMinute();
+                n++;
+            }
+            OneTimeEvent[] added = Arrays.copyOfRange(ok, i, i + n);
+            oneTimeByDay.computeIfAbsent(day, k -> new IntervalBucket<>()).addSorted(added, starts, ends, n);
+            for (OneTimeEvent o : added) {
+                byName.computeIfAbsent(fold(o.name()), k -> new ArrayList<>()).add(o);
+                for (StoreListener l : listeners) l.added(o);
+            }
+            if (committed != null) committed.addAll(Arrays.asList(added));
+            accepted += n;
+            CalendarMetrics.eventsIndexed(n);
+        }
+        // one journal commit (and fsync) for the whole batch, not one per event
+        if (committed != null) journal.logAdds(committed);
+        // the journal only records one-time adds, so new recurring events go into a snapshot
+        if (recurringAdded && journal != null) {
+            try {
+                journal.checkpoint();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        CalendarMetrics.record(Op.IMPORT, t0, accepted);
+        return new ImportReport(accepted, rejected);
+    }
+
+    // Stable sort by (day, start): one packed long per event (day offset | start | index)
+    // when the days fit, a comparator sort otherwise
+    private static OneTimeEvent[] sortByDayAndStart(List<OneTimeEvent> list) {
+        OneTimeEvent[] in = list.toArray(new OneTimeEvent[0]);
+        int n = in.length;
+        long minDay = Long.MAX_VALUE, maxDay = Long.MIN_VALUE;
+        for (OneTimeEvent o : in) {
+            minDay = Math.min(minDay, o.date().toEpochDay());
+            maxDay = Math.max(maxDay, o.date().toEpochDay());
+        }
+        if (n == 0 || maxDay - minDay >= (1 << 20)) {
+            Arrays.sort(in, Comparator.comparing(OneTimeEvent::date).thenComparingInt(o -> o.time().startMinute()));
+            return in;
+        }
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ((in[i].date().toEpochDay() - minDay) << 43) | ((long) in[i].time().startMinute() << 32) | i;
+        }
+        Arrays.sort(keys);
+        OneTimeEvent[] out = new OneTimeEvent[n];
+        for (int i = 0; i < n; i++) out[i] = in[(int) keys[i]];
+        return out;
+    }
+
+    // One day's stored occurrences (one-time and recurring) merged by start; reused across days
+    private static final class DayOccurrences {
+        int[] starts = new int[16];
+        int[] ends = new int[16];
+        Event[] items = new Event[16];
+        int size;
+
+        void load(IntervalBucket<OneTimeEvent> day, IntervalBucket<RecurringEvent> weekly, LocalDate d) {
+            size = 0;
+            int a = 0, an = day == null ? 0 : day.size();
+            int b = 0, bn = weekly == null ? 0 : weekly.size();
+            while (a < an || b < bn) {
+                if (b < bn && !weekly.get(b).occursOn(d)) { b++; continue; }
+                if (b == bn || (a < an && day.startAt(a) <= weekly.startAt(b))) {
+                    push(day.startAt(a), day.endAt(a), day.get(a));
+                    a++;
+                } else {
+                    push(weekly.startAt(b), weekly.endAt(b), weekly.get(b));
+                    b++;
+                }
+            }
+        }
+
+        private void push(int s, int e, Event item) {
+            if (size == items.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+            }
+            starts[size] = s;
+            ends[size] = e;
+            items[size] = item;
+            size++;
+        }
+    }
+
+    // From now on every mutation is appended to the journal (see EventJournal.open)
+    void attachJournal(EventJournal journal) { this.journal = journal; }
+
+    // Listeners hear about every event indexed or unindexed, including bulk loads
+    public void addListener(StoreListener l) { listeners.add(l); }
+    public void removeListener(StoreListener l) { listeners.remove(l); }
+
+    // The events in the store right now, without waiting for a progressive load
+    // (a listener added first hears about the rest as they are merged)
+    void forEachLoaded(Consumer<? super Event> action) { events.forEach(action); }
+
+    // While set, queries first make the loader bring in the days they read (see ProgressiveLoader)
+    void setLoadingGate(ProgressiveLoader loader) { this.loading = loader; }
+
+    // Package-private for indexes that follow the store (EventSearchIndex)
+    void awaitDays(LocalDate from, LocalDate to) {
+        if (loading != null) loading.ensureLoaded(from.toEpochDay(), to.toEpochDay());
+    }
+
+    void awaitAll() {
+        if (loading != null) loading.ensureAll();
+    }
+
+    // Keep the occurrence and name indexes in step with the event list
+    private void index(Event e) {
+        byName.computeIfAbsent(fold(e.name()), k -> new ArrayList<>()).add(e);
+        if (e instanceof OneTimeEvent o) {
+            oneTimeByDay.computeIfAbsent(o.date().toEpochDay(), k -> new IntervalBucket<>()).add(o, o.time());
+        } else if (e instanceof RecurringEvent r) {
+            recurring.add(r);
+            for (DayOfWeek dow : r.days())
+                recurringByWeekday.computeIfAbsent(dow, k -> new IntervalBucket<>()).add(r, r.time());
         }
-        Collections.sort(list);
-        // Convert to strings for printing 
-        return list.stream()
-                   .map(o -> String.format("%s : %s - %s",
-                         o.name, o.time.start(), o.time.end()))
-                   .toList();
+        for (StoreListener l : listeners) l.added(e);
+        CalendarMetrics.eventsIndexed(1);
     }
 
-    public boolean hasConflict(LocalDate d, TimeRange newRange) {
-        for (Event e : events) {
-            Optional<TimeRange> maybe = e.timeOn(d);
-            if (maybe.isPresent() && maybe.get().conflicts(newRange)) return true;
+    private void unindex(Event e) {
+        String key = fold(e.name());
+        List<Event> named = byName.get(key);
+        if (named != null && named.remove(e) && named.isEmpty()) byName.remove(key);
+        if (e instanceof OneTimeEvent o) {
+            long day = o.date().toEpochDay();
+            IntervalBucket<OneTimeEvent> bucket = oneTimeByDay.get(day);
+            if (bucket != null && bucket.remove(o, o.time()) && bucket.isEmpty()) oneTimeByDay.remove(day);
+        } else if (e instanceof RecurringEvent r) {
+            recurring.remove(r);
+            for (DayOfWeek dow : r.days()) {
+                IntervalBucket<RecurringEvent> bucket = recurringByWeekday.get(dow);
+                if (bucket != null) bucket.remove(r, r.time());
+            }
         }
-        return false;
+        for (StoreListener l : listeners) l.removed(e);
     }
 
-    public void addOneTime(OneTimeEvent evt) {
+    // Visits the occurrences on d: that day's one-time bucket plus the
+    // weekday's recurring bucket (each event checks its own from/to)
+    public void forEachOccurrenceOn(LocalDate d, OccurrenceSink sink) {
+        awaitDays(d, d);
+        IntervalBucket<OneTimeEvent> day = oneTimeByDay.get(d.toEpochDay());
+        if (day != null) {
+            for (int i = 0; i < day.size(); i++) day.get(i).forEachOccurrence(d, d, sink);
+        }
+        IntervalBucket<RecurringEvent> weekly = recurringByWeekday.get(d.getDayOfWeek());
+        if (weekly != null) {
+            for (int i = 0; i < weekly.size(); i++) weekly.get(i).forEachOccurrence(d, d, sink);
+        }
+    }
+
+    // Visits every occurrence in [from, to]; one-time events come first, so the
+    // order is only by date within each kind
+    public void forEachOccurrence(LocalDate from, LocalDate to, OccurrenceSink sink) {
+        awaitDays(from, to);
+        long lo = from.toEpochDay(), hi = to.toEpochDay();
+        if (hi - lo < oneTimeByDay.size()) {
+            // short range: look the days up
+            for (long d = lo; d <= hi; d++) {
+                IntervalBucket<OneTimeEvent> day = oneTimeByDay.get(d);
+                if (day != null) {
+                    for (int i = 0; i < day.size(); i++) day.get(i).forEachOccurrence(from, to, sink);
+                }
+            }
+        } else {
+            for (Map.Entry<Long, IntervalBucket<OneTimeEvent>> entry : oneTimeByDay.entrySet()) {
+                if (entry.getKey() < lo || entry.getKey() > hi) continue;
+                IntervalBucket<OneTimeEvent> day = entry.getValue();
+                for (int i = 0; i < day.size(); i++) day.get(i).forEachOccurrence(from, to, sink);
+            }
+        }
+        for (RecurringEvent r : recurring) r.forEachOccurrence(from, to, sink);
+    }
+
+    // All occurrences in [from, to] sorted by date and start time, expanded
+    // lazily as the stream is consumed; .parallel() splits the date range
+    public Stream<Occurrence> occurrences(LocalDate from, LocalDate to) {
+        awaitDays(from, to);
+        return StreamSupport.stream(new OccurrenceSpliterator(this, from.toEpochDay(), to.toEpochDay()), false);
+    }
+
+    // Free windows of at least length between dayStart and dayEnd on each day of
+    // [from, to], earliest first; days are swept only as the stream is consumed
+    public Stream<FreeSlot> findFreeSlots(LocalDate from, LocalDate to, Duration length,
+                                          LocalTime dayStart, LocalTime dayEnd, int limit) {
+        if (length.isNegative() || length.isZero())
+            throw new IllegalArgumentException("Slot length must be positive.");
+        if (!dayEnd.isAfter(dayStart))
+            throw new IllegalArgumentException("Day end must be after day start.");
+        if (limit < 0) throw new IllegalArgumentException("Limit must not be negative.");
+        TimeRange window = new TimeRange(dayStart, dayEnd);
+        // slots are whole minutes, so a partial minute needs the next one too
+        long minutes = length.toMinutes() + (length.toSecondsPart() > 0 || length.toNanosPart() > 0 ? 1 : 0);
+        FreeSlotFinder finder = new FreeSlotFinder(this, from.toEpochDay(), to.toEpochDay(),
+                window.startMinute(), window.endMinute(), (int) Math.min(minutes, 24 * 60));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(finder,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).limit(limit);
+    }
+
+    /**
+     * Every pair of events whose occurrences overlap between from and to
+     * (inclusive), streamed lazily: recurring/recurring pairs first, one entry
+     * per pair covering all clashing dates, then pairs involving a one-time
+     * event day by day. See ConflictScanner.
+     */
+    public Stream<Overlap> conflictReport(LocalDate from, LocalDate to) {
+        awaitDays(from, to);
+        ConflictScanner scanner = new ConflictScanner(this, from.toEpochDay(), to.toEpochDay(),
+                new ArrayList<>(recurring));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scanner,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    boolean hasOneTimeOn(long epochDay) { return oneTimeByDay.containsKey(epochDay); }
+
+    // Build occurrences for a date
+    @Override public List<String> formattedOccurrencesOn(LocalDate d) {
+        long t0 = CalendarMetrics.start();
+        DayCollector day = new DayCollector();
+        forEachOccurrenceOn(d, day);
+        List<String> out = day.formatted();
+        CalendarMetrics.record(Op.DAY_QUERY, t0, out.size());
+        return out;
+    }
+
+    // Days of ym that have at least one event; bit d is set for day-of-month d.
+    // One pass over the month's occurrences, setting bits as they are visited.
+    @Override public BitSet occupiedDays(YearMonth ym) {
+        long t0 = CalendarMetrics.start();
+        BitSet mask = new BitSet(32);
+        long firstDay = ym.atDay(1).toEpochDay();
+        long[] scanned = {0};
+        forEachOccurrence(ym.atDay(1), ym.atEndOfMonth(), (e, day, s, end) -> {
+            mask.set((int) (day - firstDay) + 1);
+            scanned[0]++;
+        });
+        CalendarMetrics.record(Op.MONTH_QUERY, t0, scanned[0]);
+        return mask;
+    }
+
+    @Override public boolean hasConflict(LocalDate d, TimeRange newRange) {
+        long t0 = CalendarMetrics.start();
+        awaitDays(d, d);
+        int s = newRange.startMinute(), e = newRange.endMinute();
+        IntervalBucket<OneTimeEvent> day = oneTimeByDay.get(d.toEpochDay());
+        IntervalBucket<RecurringEvent> weekly = recurringByWeekday.get(d.getDayOfWeek());
+        boolean conflict = (day != null && day.anyOverlap(s, e, o -> true))
+                || (weekly != null && weekly.anyOverlap(s, e, r -> r.occursOn(d)));
+        CalendarMetrics.record(Op.CONFLICT_CHECK, t0, 0);
+        return conflict;
+    }
+
+    // Events on d whose time overlaps newRange, one-time events first, each group by start time
+    @Override public List<Event> conflictsWith(LocalDate d, TimeRange newRange) {
+        awaitDays(d, d);
+        List<Event> out = new ArrayList<>();
+        int s = newRange.startMinute(), e = newRange.endMinute();
+        IntervalBucket<OneTimeEvent> day = oneTimeByDay.get(d.toEpochDay());
+        if (day != null) day.collectOverlaps(s, e, o -> true, out);
+        IntervalBucket<RecurringEvent> weekly = recurringByWeekday.get(d.getDayOfWeek());
+        if (weekly != null) weekly.collectOverlaps(s, e, r -> r.occursOn(d), out);
+        return out;
+    }
+
+    @Override public void addOneTime(OneTimeEvent evt) {
+        long t0 = CalendarMetrics.start();
         if (hasConflict(evt.date(), evt.time()))
             throw new IllegalArgumentException("Conflict with existing event.");
         events.add(evt);
+        index(evt);
+        if (journal != null) journal.logAdd(evt);
+        CalendarMetrics.record(Op.ADD, t0, 1);
     }
 
     // Delete Selected 
-    public boolean deleteSelected(LocalDate date, String name) {
-        return events.removeIf(e ->
-            (e instanceof OneTimeEvent o) &&
-            o.date().equals(date) &&
-            o.name().equalsIgnoreCase(name)
-        );
+    @Override public boolean deleteSelected(LocalDate date, String name) {
+        long t0 = CalendarMetrics.start();
+        awaitDays(date, date);
+        // the day's bucket is short; the name's list can span the whole calendar
+        IntervalBucket<OneTimeEvent> bucket = oneTimeByDay.get(date.toEpochDay());
+        List<OneTimeEvent> matches = new ArrayList<>();
+        if (bucket != null) {
+            String key = fold(name);
+            bucket.forEach(o -> { if (fold(o.name()).equals(key)) matches.add(o); });
+        }
+        for (OneTimeEvent o : matches) remove(o);
+        if (!matches.isEmpty() && journal != null) journal.logDeleteSelected(date, name);
+        CalendarMetrics.record(Op.DELETE, t0, matches.size());
+        return !matches.isEmpty();
     }
 
     // Delete All 
-    public int deleteAllOn(LocalDate date) {
-        int before = events.size();
-        events.removeIf(e -> (e instanceof OneTimeEvent o) && o.date().equals(date));
-        return before - events.size();
+    @Override public int deleteAllOn(LocalDate date) {
+        long t0 = CalendarMetrics.start();
+        awaitDays(date, date);
+        IntervalBucket<OneTimeEvent> bucket = oneTimeByDay.get(date.toEpochDay());
+        if (bucket == null) return 0;
+        List<OneTimeEvent> matches = new ArrayList<>(bucket.size());
+        bucket.forEach(matches::add);
+        for (OneTimeEvent o : matches) remove(o);
+        if (journal != null) journal.logDeleteAllOn(date);
+        CalendarMetrics.record(Op.DELETE, t0, matches.size());
+        return matches.size();
     }
 
     // Delete Recurring by name
-    public int deleteRecurringByName(String name) {
-        int before = events.size();
-        events.removeIf(e -> (e instanceof RecurringEvent r) && r.name().equalsIgnoreCase(name));
-        return before - events.size();
+    @Override public int deleteRecurringByName(String name) {
+        long t0 = CalendarMetrics.start();
+        List<Event> matches = named(name, e -> e instanceof RecurringEvent);
+        for (Event e : matches) remove(e);
+        if (!matches.isEmpty() && journal != null) journal.logDeleteRecurring(name);
+        CalendarMetrics.record(Op.DELETE, t0, matches.size());
+        return matches.size();
+    }
+
+    private void remove(Event e) {
+        if (events.remove(e)) unindex(e);
+    }
+
+    // Events whose name equals name ignoring case, that pass filter
+    private List<Event> named(String name, Predicate<Event> filter) {
+        List<Event> out = new ArrayList<>();
+        for (Event e : byName.getOrDefault(fold(name), List.of())) {
+            if (filter.test(e)) out.add(e);
+        }
+        return out;
+    }
+
+    // All events named name, ignoring case
+    public List<Event> findByName(String name) {
+        awaitAll();
+        return List.copyOf(byName.getOrDefault(fold(name), List.of()));
+    }
+
+    // All events whose name starts with prefix, ignoring case, ordered by name
+    public List<Event> findByNamePrefix(String prefix) {
+        awaitAll();
+        String from = fold(prefix);
+        List<Event> out = new ArrayList<>();
+        for (Map.Entry<String, List<Event>> entry : byName.tailMap(from, true).entrySet()) {
+            if (!entry.getKey().startsWith(from)) break;
+            out.addAll(entry.getValue());
+        }
+        return out;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // One-time events on d, by start time (for the delete screen)
+    @Override public List<OneTimeEvent> oneTimeEventsOn(LocalDate d) {
+        awaitDays(d, d);
+        IntervalBucket<OneTimeEvent> bucket = oneTimeByDay.get(d.toEpochDay());
+        List<OneTimeEvent> out = new ArrayList<>();
+        if (bucket != null) bucket.forEach(out::add);
+        return out;
     }
 
     // For Event list screen
-    public List<OneTimeEvent> oneTimeEventsSorted() {
+    @Override public List<OneTimeEvent> oneTimeEventsSorted() {
+        awaitAll();
         return events.stream()
                 .filter(e -> e instanceof OneTimeEvent)
                 .map(e -> (OneTimeEvent) e)
@@ -110,7 +561,7 @@ public final class EventStore {
                 .toList();
     }
 
-    public List<RecurringEvent> recurringEventsSorted() {
+    @Override public List<RecurringEvent> recurringEventsSorted() {
         return events.stream()
                 .filter(e -> e instanceof RecurringEvent)
                 .map(e -> (RecurringEvent) e)
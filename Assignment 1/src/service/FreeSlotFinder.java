@@ -0,0 +1,91 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import model.FreeSlot;
+import model.TimeRange;
+
+/**
+ * Walks a date range one day at a time and yields the free windows inside
+ * [dayStart, dayEnd) that are at least minLength minutes long.
+ *
+ * For each day the busy intervals of one-time and recurring events are
+ * gathered into primitive arrays, sorted by start and swept once, merging
+ * overlaps as it goes. Days are only examined when the caller asks for
+ * more slots, so the first slot comes back without scanning the range.
+ */
+final class FreeSlotFinder implements Iterator<FreeSlot> {
+    private final EventStore store;
+    private final long lastDay;
+    private final int dayStart, dayEnd, minLength;
+    private final ArrayDeque<FreeSlot> ready = new ArrayDeque<>();
+    private long nextDay;
+
+    // scratch for the day being swept
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int busy;
+
+    FreeSlotFinder(EventStore store, long firstDay, long lastDay, int dayStart, int dayEnd, int minLength) {
+        this.store = store;
+        this.nextDay = firstDay;
+        this.lastDay = lastDay;
+        this.dayStart = dayStart;
+        this.dayEnd = dayEnd;
+        this.minLength = minLength;
+    }
+
+    @Override public boolean hasNext() {
+        while (ready.isEmpty() && nextDay <= lastDay) sweep(nextDay++);
+        return !ready.isEmpty();
+    }
+
+    @Override public FreeSlot next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return ready.poll();
+    }
+
+    private void sweep(long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        busy = 0;
+        store.forEachOccurrenceOn(date, (e, day, s, end) -> {
+            if (end <= dayStart || s >= dayEnd) return;
+            if (busy == starts.length) {
+                starts = Arrays.copyOf(starts, busy * 2);
+                ends = Arrays.copyOf(ends, busy * 2);
+            }
+            starts[busy] = s;
+            ends[busy] = end;
+            busy++;
+        });
+        sortByStart();
+
+        int free = dayStart; // start of the current free stretch
+        for (int i = 0; i < busy; i++) {
+            if (starts[i] > free) emit(date, free, starts[i]);
+            free = Math.max(free, ends[i]);
+        }
+        emit(date, free, dayEnd);
+    }
+
+    private void emit(LocalDate date, int from, int to) {
+        if (to - from >= minLength) ready.add(new FreeSlot(date, TimeRange.ofMinutes(from, to)));
+    }
+
+    private void sortByStart() {
+        for (int i = 1; i < busy; i++) {
+            int s = starts[i], e = ends[i], j = i - 1;
+            while (j >= 0 && starts[j] > s) {
+                starts[j + 1] = starts[j];
+                ends[j + 1] = ends[j];
+                j--;
+            }
+            starts[j + 1] = s;
+            ends[j + 1] = e;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import model.FreeSlot;
+import model.TimeRange;
+
+/**
+ * Finds time that is free in every calendar of a group.
+ *
+ * Each calendar's busy time over [from, to] becomes a bitset of fixed-size
+ * granules (granuleMinutes, default 5 => 288 bits a day), laid out day after
+ * day in a long[]. Calendars are folded into one union bitset on the common
+ * fork-join pool: each worker ORs calendars into its own accumulator and the
+ * accumulators are merged with word-wide ORs. A sweep over the clear bits
+ * inside the working hours then yields the common free windows.
+ */
+public final class GroupScheduler {
+    public static final int DEFAULT_GRANULE_MINUTES = 5;
+
+    private final int granule;
+    private final int perDay;
+
+    public GroupScheduler() { this(DEFAULT_GRANULE_MINUTES); }
+
+    public GroupScheduler(int granuleMinutes) {
+        if (granuleMinutes <= 0 || 1440 % granuleMinutes != 0)
+            throw new IllegalArgumentException("Granule must divide a day evenly.");
+        this.granule = granuleMinutes;
+        this.perDay = 1440 / granuleMinutes;
+    }
+
+    /**
+     * Windows of at least length within [dayStart, dayEnd) where no calendar is
+     * busy, earliest first, at most limit of them. Busy time is rounded out to
+     * whole granules, so a slot never overlaps an event.
+     */
+    public List<FreeSlot> commonFreeSlots(List<EventStore> calendars, LocalDate from, LocalDate to,
+                                          Duration length, LocalTime dayStart, LocalTime dayEnd, int limit) {
+        if (!dayEnd.isAfter(dayStart))
+            throw new IllegalArgumentException("Day end must be after day start.");
+        long[] busy = unionBusy(calendars, from, to);
+
+        TimeRange window = new TimeRange(dayStart, dayEnd);
+        int firstGranule = ceilDiv(window.startMinute(), granule);
+        int lastGranule = window.endMinute() / granule; // exclusive
+        int needed = Math.max(1, ceilDiv((int) Math.min(length.toMinutes(), 1440), granule));
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+
+        List<FreeSlot> out = new ArrayList<>();
+        for (int d = 0; d < days && out.size() < limit; d++) {
+            long base = (long) d * perDay;
+            int g = firstGranule;
+            while (g < lastGranule && out.size() < limit) {
+                int freeStart = nextClear(busy, base + g, base + lastGranule);
+                if (freeStart < 0) break;
+                int freeEnd = nextSet(busy, base + freeStart, base + lastGranule);
+                if (freeEnd - freeStart >= needed) {
+                    out.add(new FreeSlot(from.plusDays(d), TimeRange.ofMinutes(minute(freeStart), minute(freeEnd))));
+                }
+                g = freeEnd;
+            }
+        }
+        return out;
+    }
+
+    // OR of every calendar's busy bitset over [from, to]
+    long[] unionBusy(List<EventStore> calendars, LocalDate from, LocalDate to) {
+        long days = to.toEpochDay() - from.toEpochDay() + 1;
+        if (days <= 0) return new long[0];
+        int words = (int) ((days * perDay + 63) >>> 6);
+        return IntStream.range(0, calendars.size()).parallel().collect(
+                () -> new long[words],
+                (acc, i) -> markBusy(calendars.get(i), from, to, acc),
+                (a, b) -> {
+                    for (int w = 0; w < a.length; w++) a[w] |= b[w];
+                });
+    }
+
+    // Sets the granules covered by each occurrence of store within [from, to]
+    void markBusy(EventStore store, LocalDate from, LocalDate to, long[] bits) {
+        long first = from.toEpochDay();
+        store.forEachOccurrence(from, to, (e, day, s, end) -> {
+            if (end <= s) return;
+            long base = (day - first) * perDay;
+            setRange(bits, base + s / granule, base + ceilDiv(end, granule));
+        });
+    }
+
+    // sets bits [from, to)
+    private static void setRange(long[] bits, long from, long to) {
+        int fw = (int) (from >>> 6), lw = (int) ((to - 1) >>> 6);
+        long firstMask = -1L << from, lastMask = -1L >>> -to;
+        if (fw == lw) {
+            bits[fw] |= firstMask & lastMask;
+            return;
+        }
+        bits[fw] |= firstMask;
+        for (int w = fw + 1; w < lw; w++) bits[w] = -1L;
+        bits[lw] |= lastMask;
+    }
+
+    // first clear bit in [from, to) as an offset within its day, or -1
+    private int nextClear(long[] bits, long from, long to) {
+        for (long i = from; i < to; ) {
+            long word = ~bits[(int) (i >>> 6)] & (-1L << i);
+            if (word != 0) {
+                long hit = (i & ~63L) + Long.numberOfTrailingZeros(word);
+                return hit < to ? (int) (hit % perDay) : -1;
+            }
+            i = (i & ~63L) + 64;
+        }
+        return -1;
+    }
+
+    // first set bit in [from, to) as an offset within its day, or to's offset
+    private int nextSet(long[] bits, long from, long to) {
+        for (long i = from; i < to; ) {
+            long word = bits[(int) (i >>> 6)] & (-1L << i);
+            if (word != 0) {
+                long hit = (i & ~63L) + Long.numberOfTrailingZeros(word);
+                return (int) (Math.min(hit, to) - (to - 1) / perDay * perDay);
+            }
+            i = (i & ~63L) + 64;
+        }
+        return (int) (to - (to - 1) / perDay * perDay);
+    }
+
+    private int minute(int granuleOfDay) {
+        return Math.min(granuleOfDay * granule, 1439);
+    }
+
+    private static int ceilDiv(int a, int b) {
+        return (a + b - 1) / b;
+    }
+}
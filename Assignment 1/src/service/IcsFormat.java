@@ -0,0 +1,533 @@
+package service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * Streaming iCalendar (RFC 5545) import and export.
+ *
+ * Reading goes line by line: folded lines are joined, properties are kept
+ * only for the VEVENT being read, and each VEVENT becomes an Event handed
+ * to a Consumer as soon as its END line is seen, so memory use does not
+ * grow with the file. Mapping:
+ * - SUMMARY is the name; DTSTART plus DTEND (or DURATION) give the date and
+ *   time range. UTC times, and TZID times in a zone java.time knows, are
+ *   converted to the system zone; other times are taken as wall-clock time.
+ *   A recurring event moved to another day by that conversion has its
+ *   weekdays, range and EXDATEs moved with it (weekly rules only).
+ * - No RRULE: a OneTimeEvent. An RRULE becomes a RecurringEvent when it
+ *   fits a RecurrenceRule: FREQ=WEEKLY with BYDAY and INTERVAL,
+ *   FREQ=DAILY, or FREQ=MONTHLY with a BYDAY position (2FR, -1MO), ending
+ *   at UNTIL, after COUNT occurrences, or OPEN_ENDED_YEARS after DTSTART
+ *   when neither is given. EXDATEs become exception dates.
+ * - Anything else (all-day or multi-day events, other RRULE parts,
+ *   RECURRENCE-ID overrides) is skipped with a ParseError at the line of
+ *   its BEGIN:VEVENT. Cancelled events are skipped silently.
+ *
+ * Writing streams events through a buffered writer on a FileChannel, one
+ * VEVENT per event, in the form the reader maps back to the same event.
+ */
+public final class IcsFormat {
+    static final int OPEN_ENDED_YEARS = 2;
+    private static final int FOLD_OCTETS = 75;
+    private static final String CRLF = "\r\n";
+    private static final String[] BYDAY = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"}; // bit 0 = Monday
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss'Z'");
+
+    // Properties of the VEVENT being read (raw values; parsed at END:VEVENT)
+    private static final class Draft {
+        final long line;
+        String summary, start, startZone, end, endZone, duration, rrule, status;
+        boolean allDay, override;
+        final List<String[]> exdates = new ArrayList<>(); // {value list, TZID}
+
+        Draft(long line) { this.line = line; }
+    }
+
+    private IcsFormat() { }
+
+    public static boolean isIcs(Path path) {
+        return path.getFileName() != null && path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".ics");
+    }
+
+    // Reads every VEVENT into memory (see read(Path, Consumer) to stream them instead)
+    public static LoadResult read(Path path) {
+        List<Event> events = new ArrayList<>();
+        try {
+            return new LoadResult(events, read(path, events::add));
+        } catch (IOException e) {
+            return new LoadResult(events, List.of(new ParseError(0, "Error reading file: " + e.getMessage())));
+        }
+    }
+
+    public static List<ParseError> read(Path path, Consumer<? super Event> sink) throws IOException {
+        long t0 = CalendarMetrics.start();
+        try (BufferedReader in = new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), 1 << 16)) {
+            List<ParseError> errors = read(in, sink);
+            if (CalendarMetrics.ENABLED) {
+                long bytes = Files.size(path);
+                CalendarMetrics.bytesParsed(bytes);
+                CalendarMetrics.record(CalendarMetrics.Op.LOAD, t0, bytes);
+            }
+            return errors;
+        }
+    }
+
+    public static List<ParseError> read(BufferedReader in, Consumer<? super Event> sink) throws IOException {
+        List<ParseError> errors = new ArrayList<>();
+        Map<String, ZoneId> zones = new HashMap<>();
+        ZoneId local = ZoneId.systemDefault();
+        StringBuilder unfolded = new StringBuilder(256);
+        Draft draft = null;
+        int nested = 0; // components inside the VEVENT (VALARM ...), whose properties are ignored
+        long lineNo = 0;
+        String next = in.readLine();
+        while (next != null) {
+            String line = next;
+            long at = ++lineNo;
+            next = in.readLine();
+            if (next != null && isContinuation(next)) {
+                unfolded.setLength(0);
+                unfolded.append(line);
+                while (next != null && isContinuation(next)) {
+                    unfolded.append(next, 1, next.length());
+                    lineNo++;
+                    next = in.readLine();
+                }
+                line = unfolded.toString();
+            }
+
+            int colon = valueStart(line);
+            if (colon < 0) continue;
+            String name = propertyName(line);
+            String value = line.substring(colon + 1);
+            if (name.equals("BEGIN")) {
+                if (draft != null) nested++;
+                else if (value.equalsIgnoreCase("VEVENT")) draft = new Draft(at);
+            } else if (name.equals("END")) {
+                if (draft == null) continue;
+                if (nested > 0) {
+                    nested--;
+                } else if (value.equalsIgnoreCase("VEVENT")) {
+                    Event e = null;
+                    try {
+                        e = toEvent(draft, zones, local);
+                    } catch (RuntimeException ex) {
+                        // one malformed VEVENT must not end the import of the ones after it
+                        errors.add(new ParseError(draft.line, ex.getMessage() != null ? ex.getMessage()
+                                : "Invalid VEVENT (" + ex.getClass().getSimpleName() + ")."));
+                    }
+                    if (e != null) sink.accept(e);
+                    draft = null;
+                }
+            } else if (draft != null && nested == 0) {
+                switch (name) {
+                    case "SUMMARY" -> draft.summary = unescape(value);
+                    case "DTSTART" -> {
+                        draft.start = value;
+                        draft.startZone = param(line, colon, "TZID");
+                        draft.allDay = "DATE".equalsIgnoreCase(param(line, colon, "VALUE")) || value.length() == 8;
+                    }
+                    case "DTEND" -> {
+                        draft.end = value;
+                        draft.endZone = param(line, colon, "TZID");
+                    }
+                    case "DURATION" -> draft.duration = value;
+                    case "RRULE" -> draft.rrule = value;
+                    case "EXDATE" -> draft.exdates.add(new String[] {value, param(line, colon, "TZID")});
+                    case "RECURRENCE-ID" -> draft.override = true;
+                    case "STATUS" -> draft.status = value;
+                    default -> { }
+                }
+            }
+        }
+        if (draft != null) errors.add(new ParseError(draft.line, "VEVENT is not closed."));
+        return errors;
+    }
+
+    private static Event toEvent(Draft d, Map<String, ZoneId> zones, ZoneId local) {
+        if ("CANCELLED".equalsIgnoreCase(d.status)) return null;
+        if (d.override) throw new IllegalArgumentException("Changed instances (RECURRENCE-ID) are not supported.");
+        if (d.start == null) throw new IllegalArgumentException("VEVENT has no DTSTART.");
+        if (d.allDay) throw new IllegalArgumentException("All-day events are not supported.");
+
+        LocalDateTime start = dateTime(d.start, d.startZone, zones, local);
+        LocalDateTime end;
+        if (d.end != null) end = dateTime(d.end, d.endZone, zones, local);
+        else if (d.duration != null) end = start.plus(Duration.parse(d.duration));
+        else throw new IllegalArgumentException("VEVENT has no DTEND or DURATION.");
+        LocalTime endTime = end.toLocalTime();
+        if (end.toLocalDate().equals(start.toLocalDate().plusDays(1)) && endTime.equals(LocalTime.MIDNIGHT)) {
+            endTime = LocalTime.of(23, 59); // ends at midnight: the last minute the model can hold
+        } else if (!end.toLocalDate().equals(start.toLocalDate())) {
+            throw new IllegalArgumentException("Events spanning several days are not supported.");
+        }
+        if (!endTime.isAfter(start.toLocalTime())) throw new IllegalArgumentException("DTEND must be after DTSTART.");
+
+        String name = d.summary == null ? "(No title)" : d.summary;
+        TimeRange time = new TimeRange(start.toLocalTime().withSecond(0).withNano(0), endTime.withSecond(0).withNano(0));
+        if (d.rrule == null) return new OneTimeEvent(name, start.toLocalDate(), time);
+
+        // The rule is read in DTSTART's own zone, where BYDAY, UNTIL and EXDATE dates
+        // mean what they say, then moved by as many days as the conversion moved DTSTART
+        LocalDate first = date(d.start.strip().substring(0, 8));
+        ZoneId source = zoneOf(d.start, d.startZone, zones);
+        if (source == null) source = local;
+        RecurrenceRule rule = rule(d.rrule, first, zones, source);
+        List<LocalDate> skipped = new ArrayList<>();
+        for (String[] ex : d.exdates) {
+            for (String v : ex[0].split(",")) {
+                if (v.isBlank()) continue;
+                v = v.strip();
+                skipped.add(v.length() == 8 ? date(v) : dateTime(v, ex[1], zones, source).toLocalDate());
+            }
+        }
+        int shift = (int) (start.toLocalDate().toEpochDay() - first.toEpochDay());
+        if (shift != 0) {
+            if (rule.nth() != 0 || rule.intervalWeeks() != 1)
+                throw new IllegalArgumentException("Recurring events that fall on another day in the local time zone"
+                        + " are only supported for weekly rules without INTERVAL or BYDAY positions.");
+            int k = Math.floorMod(shift, 7);
+            int mask = ((rule.dayMask() << k) | (rule.dayMask() >>> (7 - k))) & 0x7F;
+            rule = RecurrenceRule.weekly(mask, LocalDate.ofEpochDay(rule.fromDay() + shift),
+                    LocalDate.ofEpochDay(rule.toDay() + shift));
+            skipped.replaceAll(day -> day.plusDays(shift));
+        }
+        if (!skipped.isEmpty()) rule = rule.withExceptions(skipped);
+        return new RecurringEvent(name, time, rule);
+    }
+
+    // FREQ=WEEKLY/DAILY/MONTHLY with BYDAY, INTERVAL, UNTIL or COUNT; anything else is rejected
+    // Dates are in zone local: the zone DTSTART was written in
+    private static RecurrenceRule rule(String rrule, LocalDate from, Map<String, ZoneId> zones, ZoneId local) {
+        String freq = null, byDay = null, until = null;
+        int interval = 1;
+        long count = -1;
+        for (String part : rrule.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) continue;
+            String key = part.substring(0, eq).toUpperCase(Locale.ROOT);
+            String v = part.substring(eq + 1);
+            switch (key) {
+                case "FREQ" -> freq = v.toUpperCase(Locale.ROOT);
+                case "BYDAY" -> byDay = v.toUpperCase(Locale.ROOT);
+                case "INTERVAL" -> interval = Integer.parseInt(v);
+                case "UNTIL" -> until = v;
+                case "COUNT" -> count = Long.parseLong(v);
+                case "WKST" -> { }
+                default -> throw new IllegalArgumentException("Unsupported RRULE part " + key + ".");
+            }
+        }
+        if (freq == null) throw new IllegalArgumentException("RRULE has no FREQ.");
+
+        int mask = 0, nth = 0;
+        if (byDay != null) {
+            boolean first = true;
+            for (String day : byDay.split(",", -1)) {
+                if (day.length() < 2) throw new IllegalArgumentException("Invalid BYDAY " + day + ".");
+                String code = day.substring(day.length() - 2);
+                int bit = List.of(BYDAY).indexOf(code);
+                if (bit < 0) throw new IllegalArgumentException("Invalid BYDAY " + day + ".");
+                int pos = day.length() == 2 ? 0 : Integer.parseInt(day.substring(0, day.length() - 2).replace("+", ""));
+                if (pos == -1) pos = RecurrenceRule.LAST;
+                if (!first && pos != nth) throw new IllegalArgumentException("BYDAY positions must all match.");
+                nth = pos;
+                first = false;
+                mask |= 1 << bit;
+            }
+        }
+
+        // COUNT is found by stepping the rule; until then it runs open-ended
+        LocalDate to = until != null ? (until.length() == 8 ? date(until) : dateTime(until, null, zones, local).toLocalDate())
+                     : count >= 0 ? from.plusYears(1000) : from.plusYears(OPEN_ENDED_YEARS);
+        RecurrenceRule rule = switch (freq) {
+            case "WEEKLY" -> {
+                if (nth != 0) throw new IllegalArgumentException("Weekly BYDAY cannot have a position.");
+                yield RecurrenceRule.everyWeeks(mask == 0 ? bit(from) : mask, interval, from, to);
+            }
+            case "DAILY" -> {
+                if (interval != 1 || nth != 0) throw new IllegalArgumentException("Only plain daily rules are supported.");
+                yield RecurrenceRule.weekly(mask == 0 ? 0x7F : mask, from, to);
+            }
+            case "MONTHLY" -> {
+                if (interval != 1 || nth == 0) throw new IllegalArgumentException("Monthly rules need a BYDAY position (e.g. 2FR).");
+                yield RecurrenceRule.monthly(mask, nth, from, to);
+            }
+            default -> throw new IllegalArgumentException("Unsupported FREQ " + freq + ".");
+        };
+        if (count < 0) return rule;
+        if (count == 0) throw new IllegalArgumentException("RRULE COUNT is 0.");
+        long day = rule.fromDay() - 1;
+        for (long i = 0; i < count; i++) {
+            day = rule.nextOnOrAfter(day + 1);
+            if (day == RecurrenceRule.NONE) throw new IllegalArgumentException("RRULE COUNT runs past year " + to.getYear() + ".");
+        }
+        return rebuild(rule, from, LocalDate.ofEpochDay(day));
+    }
+
+    private static RecurrenceRule rebuild(RecurrenceRule r, LocalDate from, LocalDate to) {
+        return r.nth() != 0 ? RecurrenceRule.monthly(r.dayMask(), r.nth(), from, to)
+                            : RecurrenceRule.everyWeeks(r.dayMask(), r.intervalWeeks(), from, to);
+    }
+
+    private static int bit(LocalDate d) { return 1 << (d.getDayOfWeek().getValue() - 1); }
+
+    // yyyyMMdd'T'HHmmss, with Z for UTC or a TZID; converted to zone local when the zone is known
+    private static LocalDateTime dateTime(String v, String tzid, Map<String, ZoneId> zones, ZoneId local) {
+        v = v.strip();
+        if (v.length() < 15 || v.charAt(8) != 'T') throw new IllegalArgumentException("Invalid date-time " + v + ".");
+        LocalDateTime t = LocalDateTime.of(date(v.substring(0, 8)),
+                LocalTime.of(digits(v, 9, 11), digits(v, 11, 13), digits(v, 13, 15)));
+        ZoneId zone = zoneOf(v, tzid, zones);
+        return zone == null ? t : t.atZone(zone).withZoneSameInstant(local).toLocalDateTime();
+    }
+
+    // UTC for a trailing Z, else the TZID's zone; null for floating or unknown-zone times
+    private static ZoneId zoneOf(String v, String tzid, Map<String, ZoneId> zones) {
+        return v.strip().endsWith("Z") ? ZoneOffset.UTC : tzid == null ? null : zones.computeIfAbsent(tzid, IcsFormat::zone);
+    }
+
+    // null for names java.time does not know (e.g. Windows zone names): times stay as written
+    private static ZoneId zone(String tzid) {
+        try {
+            return ZoneId.of(tzid.startsWith("/") ? tzid.substring(1) : tzid);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate date(String v) {
+        if (v.length() != 8) throw new IllegalArgumentException("Invalid date " + v + ".");
+        return LocalDate.of(digits(v, 0, 4), digits(v, 4, 6), digits(v, 6, 8));
+    }
+
+    private static int digits(String s, int from, int to) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw new IllegalArgumentException("Invalid number in " + s + ".");
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    private static boolean isContinuation(String line) {
+        return !line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t');
+    }
+
+    // Index of the ':' ending the name and parameters (quoted parameter values may hold ':')
+    private static int valueStart(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ':' && !quoted) return i;
+        }
+        return -1;
+    }
+
+    private static String propertyName(String line) {
+        int end = 0;
+        while (end < line.length() && line.charAt(end) != ';' && line.charAt(end) != ':') end++;
+        return line.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    // Value of parameter name (e.g. TZID) between the property name and the ':' at colon
+    private static String param(String line, int colon, String name) {
+        int i = line.indexOf(';');
+        while (i >= 0 && i < colon) {
+            int eq = line.indexOf('=', i);
+            if (eq < 0 || eq > colon) return null;
+            int end = eq + 1;
+            for (boolean quoted = false; end < colon; end++) {
+                char c = line.charAt(end);
+                if (c == '"') quoted = !quoted;
+                else if (c == ';' && !quoted) break;
+            }
+            if (eq - i - 1 == name.length() && line.regionMatches(true, i + 1, name, 0, name.length())) {
+                String v = line.substring(eq + 1, end);
+                return v.length() > 1 && v.startsWith("\"") && v.endsWith("\"") ? v.substring(1, v.length() - 1) : v;
+            }
+            i = end;
+        }
+        return null;
+    }
+
+    private static String unescape(String v) {
+        if (v.indexOf('\\') < 0) return v;
+        StringBuilder sb = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c == '\\' && i + 1 < v.length()) {
+                char n = v.charAt(++i);
+                sb.append(n == 'n' || n == 'N' ? ' ' : n); // the name is one line
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes events as one VCALENDAR and returns how many VEVENTs were
+     * written (recurring events with no occurrence at all are left out).
+     */
+    public static int write(Path path, Iterable<? extends Event> events) throws IOException {
+        long t0 = CalendarMetrics.start();
+        int n;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer w = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8), 1 << 16)) {
+            n = write(w, events);
+        }
+        if (CalendarMetrics.ENABLED) CalendarMetrics.record(CalendarMetrics.Op.SAVE, t0, Files.size(path));
+        return n;
+    }
+
+    public static int write(Writer w, Iterable<? extends Event> events) throws IOException {
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(STAMP);
+        StringBuilder sb = new StringBuilder(512);
+        w.write("BEGIN:VCALENDAR" + CRLF + "VERSION:2.0" + CRLF + "PRODID:-//MyCalendar//EN" + CRLF);
+        int n = 0;
+        for (Event e : events) {
+            sb.setLength(0);
+            if (!appendEvent(sb, e, n + "-" + stamp + "@mycalendar", stamp)) continue;
+            w.append(sb);
+            n++;
+        }
+        w.write("END:VCALENDAR" + CRLF);
+        return n;
+    }
+
+    private static boolean appendEvent(StringBuilder sb, Event e, String uid, String stamp) {
+        LocalDate day;
+        TimeRange time;
+        RecurringEvent r = e instanceof RecurringEvent re ? re : null;
+        if (e instanceof OneTimeEvent o) {
+            day = o.date();
+            time = o.time();
+        } else if (r != null) {
+            // DTSTART always counts as an occurrence, so it must be the first real one
+            long first = r.rule().nextOnOrAfter(r.rule().fromDay());
+            if (first == RecurrenceRule.NONE) return false;
+            day = LocalDate.ofEpochDay(first);
+            time = r.time();
+        } else {
+            return false;
+        }
+        sb.append("BEGIN:VEVENT").append(CRLF);
+        sb.append("UID:").append(uid).append(CRLF);
+        sb.append("DTSTAMP:").append(stamp).append(CRLF);
+        int lineStart = sb.length();
+        sb.append("SUMMARY:");
+        escape(sb, e.name());
+        fold(sb, lineStart);
+        sb.append(CRLF);
+        appendDateTime(sb.append("DTSTART:"), day, time.start()).append(CRLF);
+        appendDateTime(sb.append("DTEND:"), day, time.end()).append(CRLF);
+        if (r != null) {
+            RecurrenceRule rule = r.rule();
+            lineStart = sb.length();
+            sb.append("RRULE:FREQ=").append(rule.nth() != 0 ? "MONTHLY" : "WEEKLY");
+            if (rule.intervalWeeks() > 1) sb.append(";INTERVAL=").append(rule.intervalWeeks());
+            sb.append(";BYDAY=");
+            boolean firstDay = true;
+            for (DayOfWeek dow : DayOfWeek.values()) {
+                if ((rule.dayMask() & (1 << (dow.getValue() - 1))) == 0) continue;
+                if (!firstDay) sb.append(',');
+                if (rule.nth() != 0) sb.append(rule.nth() == RecurrenceRule.LAST ? -1 : rule.nth());
+                sb.append(BYDAY[dow.getValue() - 1]);
+                firstDay = false;
+            }
+            appendDateTime(sb.append(";UNTIL="), r.to(), LocalTime.of(23, 59, 59));
+            fold(sb, lineStart);
+            sb.append(CRLF);
+            long[] skipped = rule.exceptions();
+            if (skipped.length > 0) {
+                lineStart = sb.length();
+                sb.append("EXDATE:");
+                for (int i = 0; i < skipped.length; i++) {
+                    if (i > 0) sb.append(',');
+                    appendDateTime(sb, LocalDate.ofEpochDay(skipped[i]), time.start());
+                }
+                fold(sb, lineStart);
+                sb.append(CRLF);
+            }
+        }
+        sb.append("END:VEVENT").append(CRLF);
+        return true;
+    }
+
+    // Floating local time: yyyyMMdd'T'HHmmss
+    private static StringBuilder appendDateTime(StringBuilder sb, LocalDate d, LocalTime t) {
+        pad(sb, d.getYear(), 4);
+        pad(sb, d.getMonthValue(), 2);
+        pad(sb, d.getDayOfMonth(), 2);
+        sb.append('T');
+        pad(sb, t.getHour(), 2);
+        pad(sb, t.getMinute(), 2);
+        return pad(sb, t.getSecond(), 2);
+    }
+
+    private static StringBuilder pad(StringBuilder sb, int v, int width) {
+        String s = Integer.toString(v);
+        for (int i = s.length(); i < width; i++) sb.append('0');
+        return sb.append(s);
+    }
+
+    private static void escape(StringBuilder sb, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\', ';', ',' -> sb.append('\\').append(c);
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+    }
+
+    // Folds the content line starting at from so no physical line passes 75 UTF-8 octets
+    private static void fold(StringBuilder sb, int from) {
+        int octets = 0;
+        for (int i = from; i < sb.length(); i++) {
+            char c = sb.charAt(i);
+            int size = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : 3;
+            if (octets + size > FOLD_OCTETS) {
+                sb.insert(i, CRLF + " ");
+                i += 3;
+                octets = 1;
+            }
+            octets += size;
+        }
+    }
+}
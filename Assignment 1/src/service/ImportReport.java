@@ -0,0 +1,8 @@
+package service;
+
+import java.util.List;
+
+// Outcome of EventStore.importAll: how many events were added and which were rejected
+public record ImportReport(int accepted, List<Rejection> rejected) {
+    public boolean clean() { return rejected.isEmpty(); }
+}
@@ -0,0 +1,124 @@
+package service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import model.Event;
+import model.TimeRange;
+
+/**
+ * Events of one day (or one weekday) kept sorted by start minute-of-day.
+ *
+ * The bucket also remembers the longest interval it has held, so an overlap
+ * query for [s, e) only has to look at entries starting in (s - maxLength, e):
+ * two binary searches plus the k entries in that window.
+ */
+final class IntervalBucket<E extends Event> {
+    private int[] starts = new int[4];
+    private int[] ends = new int[4];
+    private Object[] items = new Object[4];
+    private int size;
+    private int maxLength;
+
+    void add(E e, TimeRange t) {
+        int s = t.startMinute();
+        int end = t.endMinute();
+        if (size == items.length) {
+            int cap = size * 2;
+            starts = Arrays.copyOf(starts, cap);
+            ends = Arrays.copyOf(ends, cap);
+            items = Arrays.copyOf(items, cap);
+        }
+        int at = lowerBound(s + 1); // after any equal starts, keeps insertion order
+        System.arraycopy(starts, at, starts, at + 1, size - at);
+        System.arraycopy(ends, at, ends, at + 1, size - at);
+        System.arraycopy(items, at, items, at + 1, size - at);
+        starts[at] = s;
+        ends[at] = end;
+        items[at] = e;
+        size++;
+        maxLength = Math.max(maxLength, end - s);
+    }
+
+    // Merges n entries already sorted by start in one pass; like add, each
+    // goes after existing entries with an equal start
+    void addSorted(E[] es, int[] s, int[] end, int n) {
+        int total = size + n;
+        int cap = Math.max(starts.length, total);
+        int[] ns = new int[cap], ne = new int[cap];
+        Object[] ni = new Object[cap];
+        int i = 0, j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j == n || (i < size && starts[i] <= s[j])) {
+                ns[k] = starts[i]; ne[k] = ends[i]; ni[k] = items[i]; i++;
+            } else {
+                ns[k] = s[j]; ne[k] = end[j]; ni[k] = es[j];
+                maxLength = Math.max(maxLength, end[j] - s[j]);
+                j++;
+            }
+        }
+        starts = ns;
+        ends = ne;
+        items = ni;
+        size = total;
+    }
+
+    boolean remove(E e, TimeRange t) {
+        for (int i = lowerBound(t.startMinute()); i < size && starts[i] == t.startMinute(); i++) {
+            if (items[i] == e) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeAt(int i) {
+        int tail = size - i - 1;
+        System.arraycopy(starts, i + 1, starts, i, tail);
+        System.arraycopy(ends, i + 1, ends, i, tail);
+        System.arraycopy(items, i + 1, items, i, tail);
+        items[--size] = null;
+        if (size == 0) maxLength = 0;
+    }
+
+    boolean isEmpty() { return size == 0; }
+    int size() { return size; }
+
+    @SuppressWarnings("unchecked")
+    E get(int i) { return (E) items[i]; }
+    int startAt(int i) { return starts[i]; }
+    int endAt(int i) { return ends[i]; }
+
+    void forEach(Consumer<? super E> action) {
+        for (int i = 0; i < size; i++) action.accept(get(i));
+    }
+
+    // true if any entry accepted by filter overlaps [s, e)
+    boolean anyOverlap(int s, int e, Predicate<? super E> filter) {
+        for (int i = lowerBound(s - maxLength + 1), hi = lowerBound(e); i < hi; i++) {
+            if (ends[i] > s && filter.test(get(i))) return true;
+        }
+        return false;
+    }
+
+    // adds every entry accepted by filter that overlaps [s, e) to out, in start order
+    void collectOverlaps(int s, int e, Predicate<? super E> filter, List<? super E> out) {
+        for (int i = lowerBound(s - maxLength + 1), hi = lowerBound(e); i < hi; i++) {
+            if (ends[i] > s && filter.test(get(i))) out.add(get(i));
+        }
+    }
+
+    // first index whose start is >= minute
+    private int lowerBound(int minute) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < minute) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
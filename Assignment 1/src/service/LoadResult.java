@@ -0,0 +1,9 @@
+package service;
+
+import java.util.List;
+
+import model.Event;
+
+// Events parsed from a file plus the records that had to be skipped
+public record LoadResult(List<Event> events, List<ParseError> errors) {
+}
@@ -0,0 +1,79 @@
+package service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import model.Occurrence;
+import model.TimeRange;
+
+/**
+ * Lazily expands the occurrences of an EventStore over a range of epoch days.
+ *
+ * Days are expanded a block at a time (BLOCK_DAYS) through
+ * EventStore.forEachOccurrence, sorted by date and start, then handed out.
+ * trySplit halves the remaining days, so a parallel stream over a multi-year
+ * range spreads the expansion across the fork-join pool. The store must not
+ * be modified while the stream is consumed.
+ */
+final class OccurrenceSpliterator implements Spliterator<Occurrence> {
+    static final int BLOCK_DAYS = 32;
+
+    private final EventStore store;
+    private long nextDay;       // first day not yet expanded
+    private final long lastDay; // inclusive
+    private List<Occurrence> block = List.of();
+    private int index;
+
+    OccurrenceSpliterator(EventStore store, long firstDay, long lastDay) {
+        this.store = store;
+        this.nextDay = firstDay;
+        this.lastDay = lastDay;
+    }
+
+    @Override public boolean tryAdvance(Consumer<? super Occurrence> action) {
+        while (index == block.size()) {
+            if (nextDay > lastDay) return false;
+            expandNextBlock();
+        }
+        action.accept(block.get(index++));
+        return true;
+    }
+
+    private void expandNextBlock() {
+        long to = Math.min(lastDay, nextDay + BLOCK_DAYS - 1);
+        List<Occurrence> out = new ArrayList<>();
+        store.forEachOccurrence(LocalDate.ofEpochDay(nextDay), LocalDate.ofEpochDay(to),
+                (e, day, s, end) -> out.add(new Occurrence(e, LocalDate.ofEpochDay(day),
+                        TimeRange.ofMinutes(s, end))));
+        out.sort(Occurrence.BY_DATE_AND_START);
+        block = out;
+        index = 0;
+        nextDay = to + 1;
+    }
+
+    @Override public Spliterator<Occurrence> trySplit() {
+        // only split whole days that have not been expanded yet
+        long remaining = lastDay - nextDay + 1;
+        if (index < block.size() || remaining < 2L * BLOCK_DAYS) return null;
+        long mid = nextDay + remaining / 2;
+        OccurrenceSpliterator prefix = new OccurrenceSpliterator(store, nextDay, mid - 1);
+        nextDay = mid;
+        return prefix;
+    }
+
+    @Override public long estimateSize() {
+        return Math.max(0, lastDay - nextDay + 1) + (block.size() - index);
+    }
+
+    @Override public int characteristics() {
+        return ORDERED | SORTED | NONNULL;
+    }
+
+    @Override public Comparator<? super Occurrence> getComparator() {
+        return Occurrence.BY_DATE_AND_START;
+    }
+}
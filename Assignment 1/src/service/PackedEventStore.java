@@ -0,0 +1,404 @@
+package service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurrenceRule;
+import model.RecurringEvent;
+import model.TimeRange;
+
+/**
+ * CalendarStore backend that keeps events in parallel primitive arrays
+ * instead of one object graph per event.
+ *
+ * - One-time events: int epoch day, short start/end minute, int name id,
+ *   kept sorted by (day, start) so a day is a binary-searched slice.
+ * - Recurring events: int name id, byte weekday mask (bit 0 = Monday),
+ *   short start/end minute, int from/to epoch day.
+ * - Names are interned once in a string pool; the arrays hold ids.
+ *
+ * Event objects are only created when a caller asks for them (all(),
+ * oneTimeEventsOn(), findByName(), ...). Queries mirror EventStore.
+ */
+public final class PackedEventStore implements CalendarStore {
+    // one-time events, sorted by (day, start)
+    private int[] day = new int[16];
+    private short[] start = new short[16];
+    private short[] end = new short[16];
+    private int[] nameId = new int[16];
+    private int size;
+
+    // recurring events, in insertion order
+    private int[] rName = new int[4];
+    private byte[] rMask = new byte[4];
+    private short[] rStart = new short[4];
+    private short[] rEnd = new short[4];
+    private int[] rFrom = new int[4];
+    private int[] rTo = new int[4];
+    private RecurrenceRule[] rRule = new RecurrenceRule[4]; // null for plain weekly rules
+    private int rSize;
+
+    // string pool
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[16];
+    private String[] folded = new String[16];
+    private int nameCount;
+
+    @Override public void addAll(Collection<Event> es) {
+        int oneTimes = 0;
+        for (Event e : es) {
+            if (e instanceof OneTimeEvent) oneTimes++;
+            else if (e instanceof RecurringEvent r) addRecurring(r);
+        }
+        ensureOneTimeCapacity(size + oneTimes);
+        for (Event e : es) {
+            if (e instanceof OneTimeEvent o) {
+                day[size] = (int) o.date().toEpochDay();
+                start[size] = (short) o.time().startMinute();
+                end[size] = (short) o.time().endMinute();
+                nameId[size] = intern(o.name());
+                size++;
+            }
+        }
+        sortOneTimes();
+    }
+
+    @Override public List<Event> all() {
+        List<Event> out = new ArrayList<>(rSize + size);
+        for (int i = 0; i < rSize; i++) out.add(recurringView(i));
+        for (int i = 0; i < size; i++) out.add(oneTimeView(i));
+        return out;
+    }
+
+    public int size() { return size + rSize; }
+
+    // Same output as EventStore.formattedOccurrencesOn
+    @Override public List<String> formattedOccurrencesOn(LocalDate d) {
+        int dd = (int) d.toEpochDay();
+        int lo = firstOnOrAfter(dd), hi = firstOnOrAfter(dd + 1);
+        int bit = weekdayBit(d);
+        int[] rec = new int[rSize];
+        int rCount = 0;
+        for (int i = 0; i < rSize; i++) {
+            if ((rMask[i] & bit) != 0 && rFrom[i] <= dd && dd <= rTo[i] && ruleAllows(i, dd)) rec[rCount++] = i;
+        }
+        sortByStart(rec, rCount);
+
+        // merge the day's slice (already by start) with the matching recurring events;
+        // one-time first on equal starts, as in EventStore
+        List<String> out = new ArrayList<>(hi - lo + rCount);
+        int i = lo, j = 0;
+        while (i < hi || j < rCount) {
+            if (j == rCount || (i < hi && start[i] <= rStart[rec[j]])) {
+                out.add(format(names[nameId[i]], start[i], end[i]));
+                i++;
+            } else {
+                int r = rec[j++];
+                out.add(format(names[rName[r]], rStart[r], rEnd[r]));
+            }
+        }
+        return out;
+    }
+
+    // Same contract as EventStore.occupiedDays: bit d set for day-of-month d
+    @Override public BitSet occupiedDays(YearMonth ym) {
+        BitSet mask = new BitSet(32);
+        int first = (int) ym.atDay(1).toEpochDay();
+        int last = (int) ym.atEndOfMonth().toEpochDay();
+        for (int i = firstOnOrAfter(first); i < size && day[i] <= last; i++) mask.set(day[i] - first + 1);
+        int firstDow = ym.atDay(1).getDayOfWeek().getValue() - 1; // Monday = 0
+        for (int r = 0; r < rSize; r++) {
+            int lo = Math.max(first, rFrom[r]), hi = Math.min(last, rTo[r]);
+            for (int d = lo; d <= hi; d++) {
+                if ((rMask[r] & (1 << ((firstDow + d - first) % 7))) != 0 && ruleAllows(r, d)) mask.set(d - first + 1);
+            }
+        }
+        return mask;
+    }
+
+    @Override public boolean hasConflict(LocalDate d, TimeRange newRange) {
+        return scanConflicts(d, newRange, null) > 0;
+    }
+
+    @Override public List<Event> conflictsWith(LocalDate d, TimeRange newRange) {
+        List<Event> out = new ArrayList<>();
+        scanConflicts(d, newRange, out);
+        return out;
+    }
+
+    // Counts events overlapping newRange on d; with out == null stops at the first one
+    private int scanConflicts(LocalDate d, TimeRange newRange, List<Event> out) {
+        int found = 0;
+        int dd = (int) d.toEpochDay();
+        int s = newRange.startMinute(), e = newRange.endMinute();
+        for (int i = firstOnOrAfter(dd); i < size && day[i] == dd && start[i] < e; i++) {
+            if (end[i] > s) {
+                found++;
+                if (out == null) return found;
+                out.add(oneTimeView(i));
+            }
+        }
+        int bit = weekdayBit(d);
+        for (int r = 0; r < rSize; r++) {
+            if ((rMask[r] & bit) != 0 && rFrom[r] <= dd && dd <= rTo[r] && rStart[r] < e && rEnd[r] > s
+                    && ruleAllows(r, dd)) {
+                found++;
+                if (out == null) return found;
+                out.add(recurringView(r));
+            }
+        }
+        return found;
+    }
+
+    @Override public void addOneTime(OneTimeEvent evt) {
+        if (hasConflict(evt.date(), evt.time()))
+            throw new IllegalArgumentException("Conflict with existing event.");
+        ensureOneTimeCapacity(size + 1);
+        int dd = (int) evt.date().toEpochDay();
+        int s = evt.time().startMinute();
+        // insert after existing entries with the same (day, start)
+        int at = firstOnOrAfter(dd);
+        while (at < size && day[at] == dd && start[at] <= s) at++;
+        int tail = size - at;
+        System.arraycopy(day, at, day, at + 1, tail);
+        System.arraycopy(start, at, start, at + 1, tail);
+        System.arraycopy(end, at, end, at + 1, tail);
+        System.arraycopy(nameId, at, nameId, at + 1, tail);
+        day[at] = dd;
+        start[at] = (short) s;
+        end[at] = (short) evt.time().endMinute();
+        nameId[at] = intern(evt.name());
+        size++;
+    }
+
+    @Override public boolean deleteSelected(LocalDate date, String name) {
+        int dd = (int) date.toEpochDay();
+        String key = fold(name);
+        int lo = firstOnOrAfter(dd), hi = firstOnOrAfter(dd + 1);
+        int w = lo;
+        for (int i = lo; i < hi; i++) {
+            if (!folded[nameId[i]].equals(key)) move(i, w++);
+        }
+        return compact(w, hi);
+    }
+
+    @Override public int deleteAllOn(LocalDate date) {
+        int dd = (int) date.toEpochDay();
+        int lo = firstOnOrAfter(dd), hi = firstOnOrAfter(dd + 1);
+        compact(lo, hi);
+        return hi - lo;
+    }
+
+    @Override public int deleteRecurringByName(String name) {
+        String key = fold(name);
+        int w = 0;
+        for (int r = 0; r < rSize; r++) {
+            if (folded[rName[r]].equals(key)) continue;
+            rName[w] = rName[r]; rMask[w] = rMask[r];
+            rStart[w] = rStart[r]; rEnd[w] = rEnd[r];
+            rFrom[w] = rFrom[r]; rTo[w] = rTo[r];
+            rRule[w] = rRule[r];
+            w++;
+        }
+        int removed = rSize - w;
+        Arrays.fill(rRule, w, rSize, null);
+        rSize = w;
+        return removed;
+    }
+
+    public List<Event> findByName(String name) {
+        String key = fold(name);
+        List<Event> out = new ArrayList<>();
+        for (int r = 0; r < rSize; r++) if (folded[rName[r]].equals(key)) out.add(recurringView(r));
+        for (int i = 0; i < size; i++) if (folded[nameId[i]].equals(key)) out.add(oneTimeView(i));
+        return out;
+    }
+
+    public List<Event> findByNamePrefix(String prefix) {
+        String key = fold(prefix);
+        List<Event> out = new ArrayList<>();
+        for (int r = 0; r < rSize; r++) if (folded[rName[r]].startsWith(key)) out.add(recurringView(r));
+        for (int i = 0; i < size; i++) if (folded[nameId[i]].startsWith(key)) out.add(oneTimeView(i));
+        out.sort(Comparator.comparing(e -> fold(e.name())));
+        return out;
+    }
+
+    @Override public List<OneTimeEvent> oneTimeEventsOn(LocalDate d) {
+        int dd = (int) d.toEpochDay();
+        List<OneTimeEvent> out = new ArrayList<>();
+        for (int i = firstOnOrAfter(dd); i < size && day[i] == dd; i++) out.add(oneTimeView(i));
+        return out;
+    }
+
+    // Already in (date, start) order
+    @Override public List<OneTimeEvent> oneTimeEventsSorted() {
+        List<OneTimeEvent> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(oneTimeView(i));
+        return out;
+    }
+
+    @Override public List<RecurringEvent> recurringEventsSorted() {
+        List<RecurringEvent> out = new ArrayList<>(rSize);
+        for (int r = 0; r < rSize; r++) out.add(recurringView(r));
+        out.sort(Comparator.comparing(RecurringEvent::from));
+        return out;
+    }
+
+    // ---- views ----
+
+    private OneTimeEvent oneTimeView(int i) {
+        return new OneTimeEvent(names[nameId[i]], LocalDate.ofEpochDay(day[i]),
+                TimeRange.ofMinutes(start[i], end[i]));
+    }
+
+    private RecurringEvent recurringView(int r) {
+        TimeRange time = TimeRange.ofMinutes(rStart[r], rEnd[r]);
+        if (rRule[r] != null) return new RecurringEvent(names[rName[r]], time, rRule[r]);
+        return new RecurringEvent(names[rName[r]], EventSnapshot.days(rMask[r]), time,
+                LocalDate.ofEpochDay(rFrom[r]), LocalDate.ofEpochDay(rTo[r]));
+    }
+
+    // the mask and from/to arrays decide plain weekly rules; anything richer also asks its rule
+    private boolean ruleAllows(int r, int epochDay) {
+        return rRule[r] == null || rRule[r].matches(epochDay);
+    }
+
+    // ---- storage helpers ----
+
+    private void addRecurring(RecurringEvent r) {
+        if (rSize == rName.length) {
+            int cap = rSize * 2;
+            rName = Arrays.copyOf(rName, cap); rMask = Arrays.copyOf(rMask, cap);
+            rStart = Arrays.copyOf(rStart, cap); rEnd = Arrays.copyOf(rEnd, cap);
+            rFrom = Arrays.copyOf(rFrom, cap); rTo = Arrays.copyOf(rTo, cap);
+            rRule = Arrays.copyOf(rRule, cap);
+        }
+        rName[rSize] = intern(r.name());
+        rMask[rSize] = (byte) r.dayMask();
+        rStart[rSize] = (short) r.time().startMinute();
+        rEnd[rSize] = (short) r.time().endMinute();
+        rFrom[rSize] = (int) r.from().toEpochDay();
+        rTo[rSize] = (int) r.to().toEpochDay();
+        rRule[rSize] = r.rule().isWeekly() ? null : r.rule();
+        rSize++;
+    }
+
+    private void ensureOneTimeCapacity(int n) {
+        if (n <= day.length) return;
+        int cap = Math.max(n, day.length * 2);
+        day = Arrays.copyOf(day, cap);
+        start = Arrays.copyOf(start, cap);
+        end = Arrays.copyOf(end, cap);
+        nameId = Arrays.copyOf(nameId, cap);
+    }
+
+    // Stable sort of the one-time arrays by (day, start)
+    private void sortOneTimes() {
+        int minDay = Integer.MAX_VALUE, maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minDay = Math.min(minDay, day[i]);
+            maxDay = Math.max(maxDay, day[i]);
+        }
+        int[] order = new int[size];
+        if (size > 0 && (long) maxDay - minDay < (1 << 20)) {
+            // one packed long per row: day offset | start minute | row index
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) (day[i] - minDay) << 43) | ((long) (start[i] & 0x7FF) << 32) | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < size; i++) order[i] = (int) keys[i];
+        } else {
+            Integer[] boxed = new Integer[size];
+            for (int i = 0; i < size; i++) boxed[i] = i;
+            Arrays.sort(boxed, Comparator.<Integer>comparingInt(i -> day[i]).thenComparingInt(i -> start[i]));
+            for (int i = 0; i < size; i++) order[i] = boxed[i];
+        }
+        int[] d = new int[day.length], n = new int[day.length];
+        short[] s = new short[day.length], e = new short[day.length];
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            d[i] = day[from]; s[i] = start[from]; e[i] = end[from]; n[i] = nameId[from];
+        }
+        day = d; start = s; end = e; nameId = n;
+    }
+
+    private void move(int from, int to) {
+        if (from == to) return;
+        day[to] = day[from]; start[to] = start[from];
+        end[to] = end[from]; nameId[to] = nameId[from];
+    }
+
+    // Drops rows [w, hi) by shifting the tail down; true if anything was dropped
+    private boolean compact(int w, int hi) {
+        if (w == hi) return false;
+        int tail = size - hi;
+        System.arraycopy(day, hi, day, w, tail);
+        System.arraycopy(start, hi, start, w, tail);
+        System.arraycopy(end, hi, end, w, tail);
+        System.arraycopy(nameId, hi, nameId, w, tail);
+        size -= hi - w;
+        return true;
+    }
+
+    // first index whose day is >= d
+    private int firstOnOrAfter(int d) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (day[mid] < d) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private void sortByStart(int[] rec, int n) {
+        // insertion sort: a day rarely has more than a handful of recurring events
+        for (int i = 1; i < n; i++) {
+            int r = rec[i], j = i - 1;
+            while (j >= 0 && rStart[rec[j]] > rStart[r]) { rec[j + 1] = rec[j]; j--; }
+            rec[j + 1] = r;
+        }
+    }
+
+    private int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        if (nameCount == names.length) {
+            names = Arrays.copyOf(names, nameCount * 2);
+            folded = Arrays.copyOf(folded, nameCount * 2);
+        }
+        names[nameCount] = name;
+        folded[nameCount] = fold(name);
+        ids.put(name, nameCount);
+        return nameCount++;
+    }
+
+    private static int weekdayBit(LocalDate d) {
+        return 1 << (d.getDayOfWeek().getValue() - 1);
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String format(String name, int s, int e) {
+        return name + " : " + hhmm(s) + " - " + hhmm(e);
+    }
+
+    private static String hhmm(int minuteOfDay) {
+        int h = minuteOfDay / 60, m = minuteOfDay % 60;
+        return (h < 10 ? "0" : "") + h + ":" + (m < 10 ? "0" : "") + m;
+    }
+}
@@ -0,0 +1,6 @@
+package service;
+
+// A malformed record found while loading an events file; line is 1-based
+public record ParseError(long line, String message) {
+    @Override public String toString() { return "line " + line + ": " + message; }
+}
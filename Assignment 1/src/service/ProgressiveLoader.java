@@ -0,0 +1,170 @@
+package service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import model.Event;
+
+/**
+ * Loads a snapshot into an EventStore in the background, focus month first.
+ *
+ * A snapshot's one-time records are fixed-width and sorted by date, so the
+ * focus month is found by binary search and decoded before open() returns,
+ * together with the (few) recurring events; the caller can render it right
+ * away. The remaining records are cut into chunks of CHUNK_RECORDS, which a
+ * daemon thread decodes outward from the focus month.
+ *
+ * The store itself is only ever touched on the caller's thread: decoded
+ * chunks are merged when the caller pumps, or when a store query needs a
+ * day range (the store calls ensureLoaded through its loading gate). A query
+ * waits only for the chunks covering its days, decoding a chunk itself if
+ * the background thread has not claimed it yet.
+ */
+public final class ProgressiveLoader {
+    static final int CHUNK_RECORDS = 1 << 16;
+
+    private static final class Chunk {
+        final int from, to;           // record index range [from, to)
+        final long firstDay, lastDay;
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final CompletableFuture<List<Event>> decoded = new CompletableFuture<>();
+        boolean merged;               // caller thread only
+
+        Chunk(int from, int to, long firstDay, long lastDay) {
+            this.from = from;
+            this.to = to;
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+        }
+    }
+
+    private final EventStore store;
+    private final Path source;
+    private final ByteBuffer records;
+    private final EventSnapshot.Layout layout;
+    private final List<Chunk> chunks = new ArrayList<>(); // in file (date) order
+    private int pending;
+
+    private ProgressiveLoader(EventStore store, Path source, ByteBuffer records, EventSnapshot.Layout layout) {
+        this.store = store;
+        this.source = source;
+        this.records = records;
+        this.layout = layout;
+    }
+
+    /**
+     * Loads the recurring events and focus's one-time events into store,
+     * then starts loading the rest in the background.
+     */
+    public static ProgressiveLoader open(Path snapshot, EventStore store, YearMonth focus) throws IOException {
+        ByteBuffer in;
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            in = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // stays valid after close
+        }
+        EventSnapshot.Layout layout;
+        try {
+            layout = EventSnapshot.layout(in);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt calendar snapshot: " + snapshot, e);
+        }
+        ProgressiveLoader loader = new ProgressiveLoader(store, snapshot, in, layout);
+
+        int lo = EventSnapshot.firstOnOrAfter(in, layout, focus.atDay(1).toEpochDay());
+        int hi = EventSnapshot.firstOnOrAfter(in, layout, focus.atEndOfMonth().toEpochDay() + 1);
+        List<Event> first = new ArrayList<>(layout.recurring());
+        first.addAll(loader.decode(lo, hi));
+        store.addAll(first);
+
+        // before: [0, lo) in chunks, after: [hi, count) in chunks
+        List<Chunk> before = loader.cut(0, lo), after = loader.cut(hi, layout.oneTimeCount());
+        loader.chunks.addAll(before);
+        loader.chunks.addAll(after);
+        loader.pending = loader.chunks.size();
+        if (loader.pending > 0) {
+            store.setLoadingGate(loader);
+            // outward from the focus month: next chunk after, then the one before, ...
+            List<Chunk> order = new ArrayList<>();
+            for (int a = 0, b = before.size() - 1; a < after.size() || b >= 0; a++, b--) {
+                if (a < after.size()) order.add(after.get(a));
+                if (b >= 0) order.add(before.get(b));
+            }
+            Thread t = new Thread(() -> { for (Chunk c : order) decodeIfUnclaimed(loader, c); }, "calendar-loader");
+            t.setDaemon(true);
+            t.start();
+        }
+        return loader;
+    }
+
+    public boolean isComplete() { return pending == 0; }
+
+    // Merges whatever the background thread has finished; returns isComplete()
+    public boolean pump() {
+        for (Chunk c : chunks) {
+            if (!c.merged && c.decoded.isDone()) merge(c);
+        }
+        return isComplete();
+    }
+
+    public void ensureAll() { ensureLoaded(Long.MIN_VALUE, Long.MAX_VALUE); }
+
+    // Blocks until every record dated fromDay..toDay (epoch days) is in the store.
+    // Merges only those chunks, so a query whose days are loaded never mutates
+    // the store (parallel occurrence streams rely on this).
+    void ensureLoaded(long fromDay, long toDay) {
+        for (Chunk c : chunks) {
+            if (c.merged || c.lastDay < fromDay || c.firstDay > toDay) continue;
+            decodeIfUnclaimed(this, c);
+            merge(c);
+        }
+    }
+
+    private void merge(Chunk c) {
+        List<Event> events;
+        try {
+            events = c.decoded.join();
+        } catch (CompletionException | CancellationException e) {
+            throw new UncheckedIOException(new IOException("Corrupt calendar snapshot: " + source, e.getCause()));
+        }
+        c.merged = true;
+        store.addAll(events);
+        if (--pending == 0) store.setLoadingGate(null);
+    }
+
+    private static void decodeIfUnclaimed(ProgressiveLoader loader, Chunk c) {
+        if (!c.claimed.compareAndSet(false, true)) return;
+        try {
+            c.decoded.complete(loader.decode(c.from, c.to));
+        } catch (RuntimeException e) {
+            c.decoded.completeExceptionally(e);
+        }
+    }
+
+    private List<Event> decode(int from, int to) {
+        List<Event> out = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) out.add(EventSnapshot.oneTimeAt(records, layout, i));
+        return out;
+    }
+
+    private List<Chunk> cut(int from, int to) {
+        List<Chunk> out = new ArrayList<>();
+        for (int at = from, end; at < to; at = end) {
+            end = Math.min(to, at + CHUNK_RECORDS);
+            // never split a day, so its events are indexed in file order
+            long lastDay = EventSnapshot.dayAt(records, layout, end - 1);
+            while (end < to && EventSnapshot.dayAt(records, layout, end) == lastDay) end++;
+            out.add(new Chunk(at, end, EventSnapshot.dayAt(records, layout, at), lastDay));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,13 @@
+package service;
+
+import model.Event;
+import model.OneTimeEvent;
+
+// An imported event that was not added, and the event (already stored or
+// earlier in the same batch) it overlaps
+public record Rejection(OneTimeEvent event, Event conflictsWith) {
+    @Override public String toString() {
+        return event.name() + " on " + event.date() + " " + event.time().start() + " - " + event.time().end()
+                + " conflicts with " + conflictsWith.name();
+    }
+}
@@ -0,0 +1,10 @@
+package service;
+
+import model.Event;
+
+// Notified by EventStore after an event enters or leaves the store, so
+// derived views (caches, indexes) can update just the part a change touched.
+public interface StoreListener {
+    void added(Event e);
+    void removed(Event e);
+}
@@ -0,0 +1,34 @@
+package service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import model.Event;
+import model.OneTimeEvent;
+import model.RecurringEvent;
+import model.TimeRange;
+
+// CalendarStore.synchronizedStore: every call holds one lock, so a
+// single-threaded backend can be shared (reads are serialized too)
+final class SynchronizedCalendarStore implements CalendarStore {
+    private final CalendarStore store;
+
+    SynchronizedCalendarStore(CalendarStore store) { this.store = store; }
+
+    @Override public synchronized void addAll(Collection<Event> es) { store.addAll(es); }
+    @Override public synchronized List<Event> all() { return store.all(); }
+    @Override public synchronized List<String> formattedOccurrencesOn(LocalDate d) { return store.formattedOccurrencesOn(d); }
+    @Override public synchronized BitSet occupiedDays(YearMonth ym) { return store.occupiedDays(ym); }
+    @Override public synchronized boolean hasConflict(LocalDate d, TimeRange t) { return store.hasConflict(d, t); }
+    @Override public synchronized List<Event> conflictsWith(LocalDate d, TimeRange t) { return store.conflictsWith(d, t); }
+    @Override public synchronized void addOneTime(OneTimeEvent evt) { store.addOneTime(evt); }
+    @Override public synchronized boolean deleteSelected(LocalDate date, String name) { return store.deleteSelected(date, name); }
+    @Override public synchronized int deleteAllOn(LocalDate date) { return store.deleteAllOn(date); }
+    @Override public synchronized int deleteRecurringByName(String name) { return store.deleteRecurringByName(name); }
+    @Override public synchronized List<OneTimeEvent> oneTimeEventsOn(LocalDate d) { return store.oneTimeEventsOn(d); }
+    @Override public synchronized List<OneTimeEvent> oneTimeEventsSorted() { return store.oneTimeEventsSorted(); }
+    @Override public synchronized List<RecurringEvent> recurringEventsSorted() { return store.recurringEventsSorted(); }
+}